@@ -0,0 +1,62 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.seed.MemberSeeder;
+
+import java.util.function.Supplier;
+
+/**
+ * 벤치마크 공통 상태
+ * 인메모리 H2 로 애플리케이션을 띄우고 MemberSeeder 로 memberCount 만큼 데이터를 넣어둔다.
+ * */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    public static final int TEAM_COUNT = 10;
+
+    @Param({"1000", "100000"})
+    public int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=bench",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver");
+
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+
+        bean(MemberSeeder.class).seed(TEAM_COUNT, memberCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public <T> T readOnly(Supplier<T> query) {
+        return readOnlyTx.execute(status -> query.get());
+    }
+}
@@ -0,0 +1,52 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+// MemberRepositoryImpl.searchPageComplex 얕은 페이지 vs 깊은 페이지
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberPageBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"shallow", "deep"})
+    public String depth;
+
+    private PageRequest pageRequest;
+
+    @Setup
+    public void setUp(BenchmarkContext ctx) {
+        // deep 은 끝에서 두번째 페이지 -> 마지막 페이지 계산으로 count 쿼리를 생략할 수 없음
+        // (count 캐시는 application-bench.yml 에서 꺼둠 -> 반복 호출에서도 매번 count 쿼리 실행)
+        int lastPage = ctx.memberCount / PAGE_SIZE - 1;
+        int page = "deep".equals(depth) ? Math.max(0, lastPage - 1) : 0;
+        pageRequest = PageRequest.of(page, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex(BenchmarkContext ctx) {
+        MemberRepository repository = ctx.bean(MemberRepository.class);
+        return ctx.readOnly(() -> repository.searchPageComplex(new MemberSearchCondition(), pageRequest));
+    }
+}
@@ -0,0 +1,52 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.seed.MemberSeeder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// MemberJpaRepository.search(where 다중 파라미터) vs searchByBuilder(BooleanBuilder) vs searchCached(모양별 캐시된 JPQL)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+    @Benchmark
+    public List<MemberTeamDto> search(BenchmarkContext ctx) {
+        MemberJpaRepository repository = ctx.bean(MemberJpaRepository.class);
+        return ctx.readOnly(() -> repository.search(condition()));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder(BenchmarkContext ctx) {
+        MemberJpaRepository repository = ctx.bean(MemberJpaRepository.class);
+        return ctx.readOnly(() -> repository.searchByBuilder(condition()));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchCached(BenchmarkContext ctx) {
+        MemberJpaRepository repository = ctx.bean(MemberJpaRepository.class);
+        return ctx.readOnly(() -> repository.searchCached(condition()));
+    }
+
+    // 회원명 단건 조건 -> 결과 행 수가 데이터 크기와 무관하게 일정
+    private static MemberSearchCondition condition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member7");
+        condition.setTeamName(MemberSeeder.teamName(7 % BenchmarkContext.TEAM_COUNT));
+        condition.setAgeGoe(0);
+        return condition;
+    }
+}
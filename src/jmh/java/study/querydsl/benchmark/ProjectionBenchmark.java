@@ -0,0 +1,76 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.UserDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+// 테스트에서 사용한 DTO 조회 방식별 비교 (행 수는 ROWS 로 고정)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Benchmark
+    public List<MemberDto> bean(BenchmarkContext ctx) {
+        JPAQueryFactory queryFactory = ctx.bean(JPAQueryFactory.class);
+        return ctx.readOnly(() -> queryFactory
+                .select(Projections.bean(MemberDto.class,
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> fields(BenchmarkContext ctx) {
+        JPAQueryFactory queryFactory = ctx.bean(JPAQueryFactory.class);
+        return ctx.readOnly(() -> queryFactory
+                .select(Projections.fields(MemberDto.class,
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<UserDto> constructor(BenchmarkContext ctx) {
+        JPAQueryFactory queryFactory = ctx.bean(JPAQueryFactory.class);
+        return ctx.readOnly(() -> queryFactory
+                .select(Projections.constructor(UserDto.class,
+                        member.username,
+                        member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection(BenchmarkContext ctx) {
+        JPAQueryFactory queryFactory = ctx.bean(JPAQueryFactory.class);
+        return ctx.readOnly(() -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .limit(ROWS)
+                .fetch());
+    }
+}
@@ -0,0 +1,105 @@
+package study.querydsl.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * closed-loop 부하 생성기
+ * - concurrency 개의 가상 스레드가 각자 요청 -> 응답 -> 다음 요청을 반복
+ * - 지연시간은 시나리오별 HdrHistogram Recorder 에 ns 로 기록, 워밍업 구간은 버림
+ * - 응답을 기다리는 동안 다음 요청을 보내지 않으므로 서버가 느려지면 요청 수도 줄어듬 (coordinated omission 보정 없음)
+ *   -> 지연시간과 처리량을 같이 봐야 함
+ * */
+final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final RequestMix mix;
+    private final HttpClient client;
+    private final Map<RequestMix.Scenario, Recorder> recorders = new EnumMap<>(RequestMix.Scenario.class);
+    private final Map<RequestMix.Scenario, LongAdder> errors = new EnumMap<>(RequestMix.Scenario.class);
+
+    private volatile boolean running = true;
+
+    LoadGenerator(RequestMix mix, ExecutorService clientExecutor) {
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(clientExecutor)
+                .build();
+        for (RequestMix.Scenario scenario : RequestMix.Scenario.values()) {
+            recorders.put(scenario, new Recorder(3));     // 유효숫자 3자리, 범위는 자동 확장
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    LoadTestReport run(LoadTestOptions options) throws InterruptedException {
+        Map<RequestMix.Scenario, Histogram> histograms = new EnumMap<>(RequestMix.Scenario.class);
+        Map<RequestMix.Scenario, Long> errorCounts = new EnumMap<>(RequestMix.Scenario.class);
+        long measuredNanos;
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                // 워커마다 시드를 고정 -> 실행마다 같은 요청열
+                Random random = new Random(options.seed() + i);
+                workers.submit(() -> loop(random));
+            }
+
+            Thread.sleep(options.warmup().toMillis());
+            // 워밍업 구간 결과 버림
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(LongAdder::reset);
+
+            long start = System.nanoTime();
+            Thread.sleep(options.duration().toMillis());
+            for (RequestMix.Scenario scenario : RequestMix.Scenario.values()) {
+                histograms.put(scenario, recorders.get(scenario).getIntervalHistogram());
+                errorCounts.put(scenario, errors.get(scenario).sum());
+            }
+            measuredNanos = System.nanoTime() - start;
+
+            running = false;
+        }
+        return LoadTestReport.of(options, histograms, errorCounts, measuredNanos);
+    }
+
+    private void loop(Random random) {
+        while (running) {
+            RequestMix.Request request = mix.next(random);
+            HttpRequest httpRequest = HttpRequest.newBuilder(request.uri())
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+
+            long start = System.nanoTime();
+            try {
+                // 본문까지 모두 읽어야 직렬화, 전송 시간이 포함됨
+                HttpResponse<byte[]> response = client.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != 200) {
+                    errors.get(request.scenario()).increment();
+                    continue;
+                }
+                recorders.get(request.scenario()).recordValue(System.nanoTime() - start);
+            } catch (IOException e) {
+                errors.get(request.scenario()).increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.querydsl.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.seed.MemberSeeder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MemberController 부하 테스트
+ * 인메모리 H2 로 애플리케이션을 띄우고(랜덤 포트) MemberSeeder 로 데이터를 넣은 뒤 /v1, /v2 members 를 호출
+ * 결과는 report 디렉토리에, baseline 이 있으면 비교해서 나빠졌으면 종료코드 1
+ * */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        List<String> regressions;
+        try (ConfigurableApplicationContext context = start(options);
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            context.getBean(MemberSeeder.class).seed(options.teams(), options.members());
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            RequestMix mix = new RequestMix(URI.create("http://localhost:" + port), options);
+
+            System.out.println("loadtest " + options.settings());
+            LoadTestReport report = new LoadGenerator(mix, clientExecutor).run(options);
+            report.print(System.out);
+            report.write(options.reportDir());
+            System.out.println("report -> " + options.reportDir().toAbsolutePath());
+
+            regressions = options.baseline() == null
+                    ? List.of()
+                    : report.regressionsAgainst(LoadTestReport.read(options.baseline()), options.tolerance());
+        }
+
+        regressions.forEach(r -> System.out.println("REGRESSION " + r));
+        System.exit(regressions.isEmpty() ? 0 : 1);
+    }
+
+    // SQL 로그, N+1 감지 로그는 측정값을 흐리므로 끔
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        String profiles = options.profiles().isBlank() ? "loadtest" : "loadtest," + options.profiles();
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .run("--spring.profiles.active=" + profiles,
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--app.sql.n-plus-one.enabled=false");
+    }
+}
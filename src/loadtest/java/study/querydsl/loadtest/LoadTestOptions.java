@@ -0,0 +1,91 @@
+package study.querydsl.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 옵션, key=value 로 받음
+ * - members, teams      : MemberSeeder 로 넣을 데이터 크기
+ * - concurrency         : 동시에 요청하는 가상 스레드 수 (closed-loop -> 응답을 받아야 다음 요청)
+ * - warmup, duration    : 워밍업(결과에서 제외), 측정 시간
+ * - pageSize            : /v2/members 페이지 크기
+ * - mix                 : 시나리오별 비중 ex) v1-username:2,v2-shallow:4,v2-deep:1
+ * - seed                : 요청 순서 난수 시드 -> 같은 시드면 같은 요청열
+ * - profiles            : 추가 스프링 프로필 ex) virtual
+ * - report, baseline    : 결과 디렉토리, 비교할 기준 report.json
+ * - tolerance           : 기준보다 p99, 처리량이 이 비율 이상 나빠지면 실패
+ * */
+record LoadTestOptions(int members, int teams, int concurrency, Duration warmup, Duration duration, int pageSize,
+                       Map<RequestMix.Scenario, Integer> mix, long seed, String profiles,
+                       Path reportDir, Path baseline, double tolerance) {
+
+    private static final String DEFAULT_MIX = "v1-username:2,v1-team-age:1,v2-shallow:4,v2-deep:1";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("key=value 형식이어야 합니다. arg=" + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("members", "100000")),
+                Integer.parseInt(values.getOrDefault("teams", "10")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                Integer.parseInt(values.getOrDefault("pageSize", "20")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.getOrDefault("profiles", ""),
+                Path.of(values.getOrDefault("report", "build/reports/loadtest")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                Double.parseDouble(values.getOrDefault("tolerance", "0.10")));
+
+        if (options.members < options.pageSize || options.teams <= 0 || options.concurrency <= 0) {
+            throw new IllegalArgumentException("members >= pageSize, teams > 0, concurrency > 0 이어야 합니다.");
+        }
+        return options;
+    }
+
+    private static Map<RequestMix.Scenario, Integer> parseMix(String mix) {
+        Map<RequestMix.Scenario, Integer> weights = new EnumMap<>(RequestMix.Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1]) : 1;
+            if (weight > 0) {
+                weights.put(RequestMix.Scenario.of(pair[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("mix 에 시나리오가 없습니다. mix=" + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * 결과를 비교할 수 있는지 판단하는 실행 조건 (report, baseline, tolerance 는 제외)
+     * */
+    Map<String, String> settings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("members", String.valueOf(members));
+        settings.put("teams", String.valueOf(teams));
+        settings.put("concurrency", String.valueOf(concurrency));
+        settings.put("warmup", warmup.toString());
+        settings.put("duration", duration.toString());
+        settings.put("pageSize", String.valueOf(pageSize));
+        settings.put("mix", mix.toString());
+        settings.put("seed", String.valueOf(seed));
+        settings.put("profiles", profiles);
+        return settings;
+    }
+}
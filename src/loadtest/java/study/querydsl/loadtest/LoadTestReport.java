@@ -0,0 +1,105 @@
+package study.querydsl.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 결과
+ * - report.json    : 실행 조건 + 시나리오별 처리량, 백분위 지연시간(ms) -> 다음 실행의 baseline 으로 사용
+ * - {scenario}.hgrm : HdrHistogram 백분위 분포 (HistogramPlotter 등으로 그래프)
+ * */
+record LoadTestReport(Map<String, String> settings, List<ScenarioResult> scenarios,
+                      @JsonIgnore Map<String, Histogram> histograms) {   // 히스토그램은 .hgrm 파일로만 씀
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record ScenarioResult(String scenario, long requests, long errors, double throughput,
+                          double p50, double p90, double p99, double p999, double p9999, double max) {
+    }
+
+    static LoadTestReport of(LoadTestOptions options, Map<RequestMix.Scenario, Histogram> histograms,
+                             Map<RequestMix.Scenario, Long> errors, long measuredNanos) {
+        double seconds = measuredNanos / 1_000_000_000.0;
+        List<ScenarioResult> results = new ArrayList<>();
+        Map<String, Histogram> byId = new LinkedHashMap<>();
+        for (RequestMix.Scenario scenario : options.mix().keySet()) {
+            Histogram h = histograms.get(scenario);
+            results.add(new ScenarioResult(scenario.id(), h.getTotalCount(), errors.get(scenario),
+                    h.getTotalCount() / seconds,
+                    millis(h, 50), millis(h, 90), millis(h, 99), millis(h, 99.9), millis(h, 99.99),
+                    h.getMaxValue() / NANOS_PER_MILLI));
+            byId.put(scenario.id(), h);
+        }
+        return new LoadTestReport(options.settings(), results, byId);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    static LoadTestReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        MAPPER.writeValue(dir.resolve("report.json").toFile(), this);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-14s %10s %7s %10s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50", "p90", "p99", "p99.9", "p99.99", "max(ms)");
+        for (ScenarioResult r : scenarios) {
+            out.printf("%-14s %10d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.scenario(), r.requests(), r.errors(), r.throughput(),
+                    r.p50(), r.p90(), r.p99(), r.p999(), r.p9999(), r.max());
+        }
+    }
+
+    /**
+     * 기준 결과와 비교 -> 나빠진 항목 목록 (비어있으면 통과)
+     * 실행 조건이 다르면 비교할 수 없으므로 그 자체를 실패로 봄
+     * */
+    List<String> regressionsAgainst(LoadTestReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (!settings.equals(baseline.settings())) {
+            regressions.add("실행 조건이 기준과 다름 baseline=" + baseline.settings() + " current=" + settings);
+            return regressions;
+        }
+
+        for (ScenarioResult current : scenarios) {
+            for (ScenarioResult base : baseline.scenarios()) {
+                if (!base.scenario().equals(current.scenario())) {
+                    continue;
+                }
+                if (current.errors() > base.errors()) {
+                    regressions.add(current.scenario() + " errors " + base.errors() + " -> " + current.errors());
+                }
+                if (current.p99() > base.p99() * (1 + tolerance)) {
+                    regressions.add(String.format("%s p99 %.2fms -> %.2fms", current.scenario(), base.p99(), current.p99()));
+                }
+                if (current.throughput() < base.throughput() * (1 - tolerance)) {
+                    regressions.add(String.format("%s throughput %.1f -> %.1f req/s", current.scenario(), base.throughput(), current.throughput()));
+                }
+            }
+        }
+        return regressions;
+    }
+}
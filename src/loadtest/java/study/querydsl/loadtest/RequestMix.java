@@ -0,0 +1,100 @@
+package study.querydsl.loadtest;
+
+import study.querydsl.seed.MemberSeeder;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 시나리오 비중대로 요청 URI 를 만듬
+ * 데이터는 MemberSeeder 규칙(member{i}, age=i%100, team=i%teams)을 따르므로 조건마다 결과가 있음
+ * */
+final class RequestMix {
+
+    enum Scenario {
+        V1_USERNAME("v1-username"),     // username 일치 -> 한건
+        V1_TEAM_AGE("v1-team-age"),     // 팀 + 나이 범위, 페이징 없음
+        V2_SHALLOW("v2-shallow"),       // 앞쪽 페이지 + 조건 하나
+        V2_DEEP("v2-deep");             // 조건 없이 마지막 근처 페이지 -> offset 스캔, count 쿼리
+
+        private final String id;
+
+        Scenario(String id) {
+            this.id = id;
+        }
+
+        String id() {
+            return id;
+        }
+
+        static Scenario of(String id) {
+            return Arrays.stream(values())
+                    .filter(s -> s.id.equals(id))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("없는 시나리오 입니다. scenario=" + id));
+        }
+    }
+
+    record Request(Scenario scenario, URI uri) {
+    }
+
+    private final URI baseUri;
+    private final int members;
+    private final int teams;
+    private final int pageSize;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    RequestMix(URI baseUri, LoadTestOptions options) {
+        this.baseUri = baseUri;
+        this.members = options.members();
+        this.teams = options.teams();
+        this.pageSize = options.pageSize();
+
+        Map<Scenario, Integer> mix = options.mix();
+        this.scenarios = mix.keySet().toArray(Scenario[]::new);
+        this.cumulativeWeights = new int[scenarios.length];
+        int sum = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            sum += mix.get(scenarios[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    Request next(Random random) {
+        Scenario scenario = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+        return new Request(scenario, baseUri.resolve(path(scenario, random)));
+    }
+
+    private Scenario pick(int value) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        throw new IllegalStateException("weight=" + value);
+    }
+
+    private String path(Scenario scenario, Random random) {
+        return switch (scenario) {
+            case V1_USERNAME -> "/v1/members?username=member" + random.nextInt(members);
+            case V1_TEAM_AGE -> {
+                int ageGoe = random.nextInt(95);
+                yield "/v1/members?teamName=" + MemberSeeder.teamName(random.nextInt(teams))
+                        + "&ageGoe=" + ageGoe + "&ageLoe=" + (ageGoe + 4);
+            }
+            case V2_SHALLOW -> {
+                String condition = random.nextBoolean()
+                        ? "teamName=" + MemberSeeder.teamName(random.nextInt(teams))
+                        : "ageGoe=" + random.nextInt(100);
+                yield "/v2/members?" + condition + "&page=" + random.nextInt(5) + "&size=" + pageSize;
+            }
+            case V2_DEEP -> {
+                int lastPage = members / pageSize - 1;
+                yield "/v2/members?page=" + Math.max(0, lastPage - random.nextInt(10)) + "&size=" + pageSize;
+            }
+        };
+    }
+}
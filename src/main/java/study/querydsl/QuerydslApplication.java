@@ -4,7 +4,9 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
+import study.querydsl.repository.support.EventPublishingJPAQueryFactory;
 
 @SpringBootApplication
 public class QuerydslApplication {
@@ -14,8 +16,9 @@ public class QuerydslApplication {
 	}
 
 	@Bean
-	public JPAQueryFactory jpaQueryFactory(EntityManager em) {
-		return new JPAQueryFactory(em);
+	public JPAQueryFactory jpaQueryFactory(EntityManager em, ApplicationEventPublisher publisher) {
+		// 벌크 update/delete 시 캐시 무효화 이벤트 발행
+		return new EventPublishingJPAQueryFactory(em, publisher);
 	}
 
 }
@@ -0,0 +1,65 @@
+package study.querydsl.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import study.querydsl.dto.EstimatedPage;
+
+import java.io.IOException;
+
+/**
+ * Accept: application/x-jackson-smile, application/cbor 응답
+ * - 부트 ObjectMapper 설정, @JsonComponent 를 그대로 사용 (스프링 기본 Smile/CBOR 컨버터는 부트 설정을 안 따름)
+ * - Page 는 pageable/sort 메타데이터를 빼고 작은 envelope 로 씀, JSON 응답 형식은 그대로
+ * */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // Smile 은 반복되는 필드 이름을 back reference 로 씀 (CHECK_SHARED_NAMES 기본값)
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder.factory(new SmileFactory())));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder.factory(new CBORFactory())));
+    }
+
+    // 부트의 Jackson2ObjectMapperBuilder 는 prototype 빈이라 주입받을 때마다 새 builder
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.build()
+                .registerModule(new SimpleModule("page-envelope").addSerializer(Page.class, new PageEnvelopeSerializer()));
+    }
+
+    /**
+     * {contents, page, size, totalElements, hasNext, totalEstimated}
+     * totalPages 등은 클라이언트에서 계산
+     * */
+    @SuppressWarnings("rawtypes")
+    static class PageEnvelopeSerializer extends JsonSerializer<Page> {
+
+        @Override
+        public void serialize(Page page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(page);
+            gen.writeFieldName("contents");
+            provider.defaultSerializeValue(page.getContent(), gen);
+            gen.writeNumberField("page", page.getNumber());
+            gen.writeNumberField("size", page.getSize());
+            gen.writeNumberField("totalElements", page.getTotalElements());
+            gen.writeBooleanField("hasNext", page.hasNext());
+            gen.writeBooleanField("totalEstimated", page instanceof EstimatedPage<?> estimated && estimated.isTotalEstimated());
+            gen.writeEndObject();
+        }
+    }
+}
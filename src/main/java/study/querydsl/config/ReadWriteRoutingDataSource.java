@@ -0,0 +1,194 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 정상 상태의 replica 로 라운드로빈, 나머지는 primary 로 보냄
+ * 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 얻어야 readOnly 여부를 알 수 있으므로
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸서 사용
+ * */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryRoutes;
+    private final Counter fallbacks;
+    private final ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry meterRegistry,
+                                      Duration healthCheckInterval, Duration validationTimeout) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(e -> new Replica(e.getKey(), e.getValue(), meterRegistry))
+                .toList();
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+
+        this.primaryRoutes = routeCounter(meterRegistry, PRIMARY);
+        this.fallbacks = Counter.builder("datasource.replica.fallback")
+                .description("정상 replica 가 없어서 primary 로 보낸 읽기 요청 수")
+                .register(meterRegistry);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = healthCheckInterval.toMillis();
+        this.healthChecker.scheduleWithFixedDelay(this::checkHealth, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(username, password);
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // 한바퀴 돌면서 정상 replica 에 연결 시도, 실패한 replica 는 다음 헬스체크까지 제외
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = nextReplica();
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    Connection connection = open(replica.dataSource, username, password);
+                    replica.routes.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.markDown(e);
+                }
+            }
+            fallbacks.increment();
+        }
+
+        Connection connection = open(primary, username, password);
+        primaryRoutes.increment();
+        return connection;
+    }
+
+    /**
+     * 모든 replica 에 커넥션 검증, 주기적으로 실행됨
+     * */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            } catch (RuntimeException e) {      // 헬스체크 스레드가 죽지 않도록
+                replica.markDown(e);
+            }
+        }
+    }
+
+    public Map<String, Boolean> health() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        replicas.forEach(replica -> health.put(replica.name, replica.healthy));
+        return health;
+    }
+
+    // 대상 이름(primary, replica 이름)으로 실제 데이터소스 조회 -> 풀 설정 확인용
+    DataSource target(String name) {
+        if (PRIMARY.equals(name)) {
+            return primary;
+        }
+        return replicas.stream()
+                .filter(replica -> replica.name.equals(name))
+                .findFirst()
+                .map(replica -> replica.dataSource)
+                .orElseThrow(() -> new IllegalArgumentException("없는 데이터소스 입니다. name=" + name));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+        close(primary);
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {   // 커넥션 풀 정리
+            closeable.close();
+        }
+    }
+
+    private Replica nextReplica() {
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    private static Connection open(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing")
+                .description("대상 데이터소스별 커넥션 획득 수")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter routes;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.routes = routeCounter(meterRegistry, name);
+            Gauge.builder("datasource.replica.healthy", this, replica -> replica.healthy ? 1 : 0)
+                    .tag("target", name)
+                    .register(meterRegistry);
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                log.info("replica 복구 name={}", name);
+            }
+            healthy = true;
+        }
+
+        private void markDown(Exception cause) {
+            if (healthy) {
+                log.warn("replica 제외 name={} cause={}", name, cause == null ? "invalid connection" : cause.getMessage());
+            }
+            healthy = false;
+        }
+    }
+}
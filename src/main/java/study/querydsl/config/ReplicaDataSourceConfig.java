@@ -0,0 +1,77 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * app.datasource.replica.enabled=true 일 때만 읽기/쓰기 라우팅 데이터소스 등록
+ * 꺼져 있으면 기존처럼 spring.datasource 하나만 사용
+ * 풀 설정: primary 는 spring.datasource.hikari, replica 는 같은 값을 기본으로 targets[].hikari 로 덮어씀
+ * */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private static final String HIKARI = "spring.datasource.hikari";
+
+    // 자동 설정의 dataSource 를 대신하므로 spring.datasource.hikari 바인딩도 여기서 직접 해야 함
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 ReplicaDataSourceProperties replicaProperties,
+                                                                 MeterRegistry meterRegistry,
+                                                                 Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind(HIKARI, Bindable.ofInstance(primary));
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaDataSourceProperties.Target target : replicaProperties.getTargets()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(target.getUrl())
+                    .username(target.getUsername())
+                    .password(target.getPassword())
+                    .build();
+            binder.bind(HIKARI, Bindable.ofInstance(replica));
+            new Binder(new MapConfigurationPropertySource(target.getHikari()))
+                    .bind(ConfigurationPropertyName.EMPTY, Bindable.ofInstance(replica));
+            replica.setPoolName(target.getName());
+            replica.setReadOnly(true);
+            replicas.put(target.getName(), replica);
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas, meterRegistry,
+                replicaProperties.getHealthCheckInterval(), replicaProperties.getValidationTimeout());
+    }
+
+    // 트랜잭션의 readOnly 표시가 끝난 뒤 첫 쿼리 시점에 실제 커넥션을 얻도록 지연
+    // p6spy 는 이 프록시가 아니라 안쪽 readWriteRoutingDataSource 를 감싸야 함 (decorator.datasource.exclude-beans)
+    // -> 바깥을 감싸면 커넥션을 받자마자 getMetaData 를 호출해서 readOnly 표시 전에 primary 커넥션을 얻어버림
+    @Bean
+    @Primary
+    public DataSource lazyConnectionDataSource(@Qualifier("readWriteRoutingDataSource") DataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
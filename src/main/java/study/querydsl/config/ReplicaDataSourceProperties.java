@@ -0,0 +1,33 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 읽기 전용 복제본(replica) 데이터소스 목록
+ * */
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled = false;
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+    private Duration validationTimeout = Duration.ofSeconds(1);
+    private List<Target> targets = new ArrayList<>();
+
+    @Getter @Setter
+    public static class Target {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private Map<String, String> hikari = new LinkedHashMap<>();    // 이 replica 만의 풀 설정, 없으면 spring.datasource.hikari 값
+    }
+}
@@ -0,0 +1,73 @@
+package study.querydsl.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * 하이버네이트 2차 캐시(JCache + Caffeine) 설정
+ * 리전별 크기, 만료시간을 app.cache.* 로 조절
+ * 2차 캐시, 쿼리 캐시 활성화도 여기서 -> yml 에 따라 프로필(테스트 포함)마다 달라지지 않음
+ * */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String MEMBER_BY_USERNAME_REGION = "query.member.byUsername";
+
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean
+    public CacheManager hibernateCacheManager(@Value("${app.cache.team.max-size:1000}") long teamMaxSize,
+                                              @Value("${app.cache.team.ttl:10m}") Duration teamTtl,
+                                              @Value("${app.cache.member.max-size:10000}") long memberMaxSize,
+                                              @Value("${app.cache.member.ttl:5m}") Duration memberTtl,
+                                              @Value("${app.cache.member-query.max-size:10000}") long memberQueryMaxSize,
+                                              @Value("${app.cache.member-query.ttl:1m}") Duration memberQueryTtl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+        createIfAbsent(cacheManager, Team.class.getName(), OptionalLong.of(teamMaxSize), teamTtl);
+        createIfAbsent(cacheManager, Member.class.getName(), OptionalLong.of(memberMaxSize), memberTtl);
+        createIfAbsent(cacheManager, MEMBER_BY_USERNAME_REGION, OptionalLong.of(memberQueryMaxSize), memberQueryTtl);
+        createIfAbsent(cacheManager, DEFAULT_QUERY_RESULTS_REGION, OptionalLong.of(memberQueryMaxSize), memberQueryTtl);
+        // 쿼리 캐시 무효화 기준 -> 크기 제한, 만료 없이 유지해야 함
+        createIfAbsent(cacheManager, UPDATE_TIMESTAMPS_REGION, OptionalLong.empty(), null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+        };
+    }
+
+    // 기본 CacheManager 는 JVM 에 하나라서 컨텍스트가 여러번 뜨는 경우(테스트) 이미 있는 캐시는 그대로 사용
+    private static void createIfAbsent(CacheManager cacheManager, String region, OptionalLong maxSize, Duration ttl) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize);
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
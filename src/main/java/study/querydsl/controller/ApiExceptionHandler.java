@@ -0,0 +1,30 @@
+package study.querydsl.controller;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // 잘못된 커서, 파라미터 범위 초과 등 -> 400
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public Map<String, String> badRequest(IllegalArgumentException e){
+        return Map.of("message", String.valueOf(e.getMessage()));
+    }
+
+    // repository 에서 던진 IllegalArgumentException 은 예외 변환을 거쳐 감싸져서 옴 (정렬 키, 검색 조건 등)
+    @ExceptionHandler(InvalidDataAccessApiUsageException.class)
+    public ResponseEntity<Map<String, String>> badRepositoryRequest(InvalidDataAccessApiUsageException e){
+        if (!(e.getCause() instanceof IllegalArgumentException cause)) {
+            throw e;
+        }
+        return ResponseEntity.badRequest().body(badRequest(cause));
+    }
+}
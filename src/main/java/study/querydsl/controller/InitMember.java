@@ -1,15 +1,11 @@
 package study.querydsl.controller;
 
 import jakarta.annotation.PostConstruct;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import study.querydsl.entity.Member;
-import study.querydsl.entity.Team;
+import study.querydsl.seed.MemberSeeder;
 
 // application.yml -> spring:profiles -> active 이름값
 @Profile("local")
@@ -17,28 +13,17 @@ import study.querydsl.entity.Team;
 @RequiredArgsConstructor
 public class InitMember {
 
-    private final InitMemberService initMemberService;
+    private final MemberSeeder memberSeeder;
 
-    @PostConstruct
-    public void init(){
-        initMemberService.init();
-    }
+    @Value("${app.seed.teams:2}")
+    private int teamCount;
 
-    @Component
-    static class InitMemberService{
-        @PersistenceContext private EntityManager em;
+    @Value("${app.seed.members:100}")
+    private long memberCount;
 
-        @Transactional
-        public void init(){
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
-            em.persist(teamA);
-            em.persist(teamB);
-
-            for(int i=0; i< 100; i++){
-                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                em.persist(new Member("member"+i, i, selectedTeam));
-            }
-        }
+    @PostConstruct
+    public void init(){
+        // 청크 단위 커밋 + JDBC 배치 insert, 건수는 app.seed.members 로 조절
+        memberSeeder.seed(teamCount, memberCount);
     }
 }
@@ -1,32 +1,98 @@
 package study.querydsl.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import study.querydsl.dto.CursorPage;
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.support.DataVersion;
+import study.querydsl.repository.support.UsernamePrefixIndex;
 
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_AUTOCOMPLETE_SIZE = 100;
+
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final DataVersion dataVersion;
+    private final UsernamePrefixIndex usernamePrefixIndex;
 
+    // If-None-Match 가 같으면 쿼리를 실행하지 않고 304 (checkNotModified 가 ETag 헤더도 세팅)
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition){
-        return memberJpaRepository.search(condition);
+    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition, WebRequest request, HttpServletResponse response){
+        if (notModified(request, response, "v1", condition.normalized())) {
+            return null;
+        }
+        return memberJpaRepository.searchCached(condition);
     }
 
+    // estimateTotal=true 면 total 을 추정값으로 (응답의 totalEstimated 로 구분)
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV1(MemberSearchCondition condition, Pageable pageable){
-        return memberRepository.searchPageComplex(condition, pageable);
+    public Page<MemberTeamDto> searchMemberV1(MemberSearchCondition condition, Pageable pageable,
+                                              @RequestParam(defaultValue = "false") boolean estimateTotal,
+                                              WebRequest request, HttpServletResponse response){
+        if (notModified(request, response, "v2", condition.normalized(), pageable, estimateTotal)) {
+            return null;
+        }
+        return estimateTotal
+                ? memberRepository.searchPageEstimated(condition, pageable)
+                : memberRepository.searchPageComplex(condition, pageable);
+    }
+
+    // 커서 기반 페이징 -> 응답의 nextCursor 를 다음 요청의 cursor 로 넘김
+    @GetMapping("/v3/members")
+    public CursorPage<MemberTeamDto> searchMemberV3(MemberSearchCondition condition,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "MEMBER_ID") MemberCursor.SortKey sort,
+                                                    @RequestParam(defaultValue = "20") int size){
+        return memberRepository.searchByCursor(condition, sort, cursor, size);
+    }
+
+    // 검색조건 목록 -> 조건별 검색 결과 목록 (요청 한번, 쿼리 한번)
+    @PostMapping("/v1/members/batch")
+    public List<List<MemberTeamDto>> searchMemberBatch(@RequestBody List<MemberSearchCondition> conditions){
+        return memberRepository.searchBatch(conditions);
+    }
+
+    // username 자동완성 -> 메모리 인덱스에서 조회, DB 를 거치지 않음
+    @GetMapping("/v1/members/autocomplete")
+    public List<MemberTeamDto> autocomplete(@RequestParam String prefix,
+                                            @RequestParam(required = false) String teamName,
+                                            @RequestParam(defaultValue = "10") int size){
+        Assert.hasText(prefix, "prefix 는 필수 입니다.");
+        Assert.isTrue(size > 0 && size <= MAX_AUTOCOMPLETE_SIZE, "size 는 1 ~ " + MAX_AUTOCOMPLETE_SIZE + " 사이여야 합니다.");
+        return usernamePrefixIndex.search(prefix, StringUtils.hasText(teamName) ? teamName : null, size);
+    }
+
+    // 같은 URL 이라도 Accept(JSON, Smile, CBOR) 마다 본문이 다름 -> ETag 에 Accept 를 넣고 Vary 로 알려줌
+    // ETag 를 쓸 수 없는 배포(replica, 여러 인스턴스)면 항상 200 (DataVersion 참고)
+    private boolean notModified(WebRequest request, HttpServletResponse response, Object... scope) {
+        if (!dataVersion.isEnabled()) {
+            return false;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Object[] keys = Arrays.copyOf(scope, scope.length + 1);
+        keys[scope.length] = request.getHeader(HttpHeaders.ACCEPT);
+        return request.checkNotModified(dataVersion.etag(keys));
     }
 
 
@@ -0,0 +1,32 @@
+package study.querydsl.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.service.MemberExportService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberExportService memberExportService;
+
+    @GetMapping("/v1/members/export")
+    public void export(MemberSearchCondition condition,
+                       @RequestParam(defaultValue = "NDJSON") MemberExportService.Format format,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(format == MemberExportService.Format.JSON
+                ? MediaType.APPLICATION_JSON_VALUE
+                : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        memberExportService.export(condition, format, response.getOutputStream());
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.dto.TeamSummaryDto;
+import study.querydsl.repository.TeamRepository;
+import study.querydsl.repository.TeamSummaryRepository;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamSummaryRepository teamSummaryRepository;
+    private final TeamRepository teamRepository;
+
+    // 팀 페이지 + 팀별 회원 (membersPerTeam 을 주면 팀마다 앞에서부터 그 수만큼)
+    @GetMapping("/v1/teams")
+    public Page<TeamMembersDto> teamsWithMembers(Pageable pageable,
+                                                 @RequestParam(required = false) Integer membersPerTeam){
+        return teamRepository.findTeamsWithMembers(pageable, membersPerTeam);
+    }
+
+    // 팀별 회원 수, 평균/최소/최대 나이 -> 미리 집계된 값이라 groupBy 쿼리를 실행하지 않음
+    @GetMapping("/v1/teams/summary")
+    public List<TeamSummaryDto> teamSummary(){
+        return teamSummaryRepository.findAll();
+    }
+}
@@ -0,0 +1,23 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@ToString
+public class CursorPage<T> {
+
+    private final List<T> contents;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;    // 마지막 페이지면 null
+
+    public CursorPage(List<T> contents, int size, boolean hasNext, String nextCursor) {
+        this.contents = contents;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
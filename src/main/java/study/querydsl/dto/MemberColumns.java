@@ -0,0 +1,118 @@
+package study.querydsl.dto;
+
+import java.util.Arrays;
+
+/**
+ * 회원 조회 결과를 행 객체 없이 컬럼별 primitive 배열로 담음
+ * 팀 이름은 사전(teamNames) 인덱스로 인코딩, 팀이 없으면 NO_TEAM
+ * 집계 메서드는 팀 코드 기준 배열을 돌려주므로 행 수와 상관없이 할당이 팀 수 만큼만 생김
+ * */
+public class MemberColumns {
+
+    public static final int NO_TEAM = -1;
+
+    private final String[] teamNames;
+    private long[] ids;
+    private int[] ages;
+    private int[] teamCodes;
+    private int size;
+
+    public MemberColumns(String[] teamNames, int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.teamNames = teamNames;
+        this.ids = new long[capacity];
+        this.ages = new int[capacity];
+        this.teamCodes = new int[capacity];
+    }
+
+    public void add(long id, int age, int teamCode) {
+        if (size == ids.length) {
+            int capacity = size << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamCodes = Arrays.copyOf(teamCodes, capacity);
+        }
+        ids[size] = id;
+        ages[size] = age;
+        teamCodes[size] = teamCode;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public int teamCode(int row) {
+        return teamCodes[row];
+    }
+
+    public int teamCount() {
+        return teamNames.length;
+    }
+
+    public String teamName(int teamCode) {
+        return teamCode == NO_TEAM ? null : teamNames[teamCode];
+    }
+
+    public long sumAge() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += ages[i];
+        }
+        return sum;
+    }
+
+    public double avgAge() {
+        return size == 0 ? 0 : (double) sumAge() / size;
+    }
+
+    // 아래 팀별 집계는 인덱스가 팀 코드, 팀이 없는 회원은 제외
+    public long[] countByTeam() {
+        long[] counts = new long[teamNames.length];
+        for (int i = 0; i < size; i++) {
+            if (teamCodes[i] != NO_TEAM) {
+                counts[teamCodes[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    public long[] sumAgeByTeam() {
+        long[] sums = new long[teamNames.length];
+        for (int i = 0; i < size; i++) {
+            if (teamCodes[i] != NO_TEAM) {
+                sums[teamCodes[i]] += ages[i];
+            }
+        }
+        return sums;
+    }
+
+    public int[] maxAgeByTeam() {
+        int[] max = new int[teamNames.length];
+        Arrays.fill(max, Integer.MIN_VALUE);
+        for (int i = 0; i < size; i++) {
+            if (teamCodes[i] != NO_TEAM && ages[i] > max[teamCodes[i]]) {
+                max[teamCodes[i]] = ages[i];
+            }
+        }
+        return max;
+    }
+
+    public double[] avgAgeByTeam() {
+        long[] counts = countByTeam();
+        long[] sums = sumAgeByTeam();
+        double[] avg = new double[teamNames.length];
+        for (int code = 0; code < avg.length; code++) {
+            avg[code] = counts[code] == 0 ? Double.NaN : (double) sums[code] / counts[code];
+        }
+        return avg;
+    }
+}
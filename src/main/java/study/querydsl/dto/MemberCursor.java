@@ -0,0 +1,82 @@
+package study.querydsl.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+/**
+ * 커서(keyset) 페이징용 커서
+ * 마지막으로 내려준 회원의 memberId 와 정렬키를 담아서 클라이언트에는 불투명한 문자열로 내려준다.
+ * 커서를 만든 검색조건의 해시도 담아서 다른 조건에 커서를 이어 붙이면 거절한다.
+ * */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class MemberCursor {
+
+    public enum SortKey { MEMBER_ID, AGE }
+
+    private static final String DELIMITER = ":";
+
+    private final SortKey sortKey;
+    private final Long memberId;
+    private final Integer age;  // AGE 정렬일 때만 사용
+    private final String conditionHash;
+
+    public MemberCursor(SortKey sortKey, Long memberId, Integer age, String conditionHash) {
+        this.sortKey = sortKey;
+        this.memberId = memberId;
+        this.age = age;
+        this.conditionHash = conditionHash;
+    }
+
+    public static MemberCursor of(SortKey sortKey, MemberTeamDto last, MemberSearchCondition condition) {
+        return new MemberCursor(sortKey, last.getMemberId(), sortKey == SortKey.AGE ? last.getAge() : null, hash(condition));
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + DELIMITER + memberId + DELIMITER + (age == null ? "" : age) + DELIMITER + conditionHash;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 조건이 바뀌면 커서 위치가 새 조건의 결과에서는 의미가 없음 (누락, 중복) -> 처음부터 다시 조회해야 함
+    public void verify(MemberSearchCondition condition) {
+        if (!conditionHash.equals(hash(condition))) {
+            throw new IllegalArgumentException("커서를 만든 검색조건과 다릅니다. cursor 없이 처음부터 조회해주세요.");
+        }
+    }
+
+    // 빈 문자열, 공백은 조건 없음과 같게 정규화 후 해시
+    private static String hash(MemberSearchCondition condition) {
+        MemberSearchCondition normalized = condition.normalized();
+        String raw = normalized.getUsername() + DELIMITER + normalized.getTeamName()
+                + DELIMITER + normalized.getAgeGoe() + DELIMITER + normalized.getAgeLoe();
+        CRC32 crc = new CRC32();
+        crc.update(raw.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    public static MemberCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] tokens = raw.split(DELIMITER, -1);
+            if (tokens.length != 4) {
+                throw new IllegalArgumentException("cursor token 개수 불일치");
+            }
+
+            SortKey sortKey = SortKey.valueOf(tokens[0]);
+            Long memberId = Long.valueOf(tokens[1]);
+            Integer age = tokens[2].isEmpty() ? null : Integer.valueOf(tokens[2]);
+            if (sortKey == SortKey.AGE && age == null) {
+                throw new IllegalArgumentException("AGE 정렬 커서에 age 값이 없음");
+            }
+            return new MemberCursor(sortKey, memberId, age, tokens[3]);
+        } catch (IllegalArgumentException e) {     // Base64, NumberFormat, Enum 변환 실패 모두 포함
+            throw new IllegalArgumentException("잘못된 커서 입니다. cursor=" + cursor, e);
+        }
+    }
+}
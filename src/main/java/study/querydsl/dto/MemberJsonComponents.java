@@ -0,0 +1,46 @@
+package study.querydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+import org.springframework.boot.jackson.JsonObjectSerializer;
+
+import java.io.IOException;
+
+/**
+ * 검색 결과 DTO 직렬화 -> 리플렉션(BeanSerializer) 없이 필드를 직접 씀
+ * 필드 이름, 순서는 기존 JSON 과 같음. JSON/Smile/CBOR 컨버터가 모두 사용
+ * */
+@JsonComponent
+public class MemberJsonComponents {
+
+    public static class MemberTeamDtoSerializer extends JsonObjectSerializer<MemberTeamDto> {
+
+        @Override
+        protected void serializeObject(MemberTeamDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeLong(gen, "memberId", value.getMemberId());
+            gen.writeStringField("username", value.getUsername());
+            gen.writeNumberField("age", value.getAge());
+            writeLong(gen, "teamId", value.getTeamId());
+            gen.writeStringField("teamName", value.getTeamName());
+        }
+    }
+
+    public static class MemberDtoSerializer extends JsonObjectSerializer<MemberDto> {
+
+        @Override
+        protected void serializeObject(MemberDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStringField("username", value.getUsername());
+            gen.writeNumberField("age", value.getAge());
+        }
+    }
+
+    // 팀이 없는 회원은 teamId 가 null
+    static void writeLong(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value.longValue());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package study.querydsl.dto;
 
 import lombok.Data;
+import org.springframework.util.StringUtils;
 
 @Data
 public class MemberSearchCondition {
@@ -10,4 +11,14 @@ public class MemberSearchCondition {
     private String teamName;
     private Integer ageGoe; // 나이가 크거나 같거나
     private Integer ageLoe; // 나이가 작거나 같거나
+
+    // 캐시 키로 쓰기 위해 조건이 없는 값(빈 문자열 등)은 null 로 통일
+    public MemberSearchCondition normalized() {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setUsername(StringUtils.hasText(username) ? username : null);
+        normalized.setTeamName(StringUtils.hasText(teamName) ? teamName : null);
+        normalized.setAgeGoe(ageGoe);
+        normalized.setAgeLoe(ageLoe);
+        return normalized;
+    }
 }
@@ -0,0 +1,28 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class TeamSummaryDto {
+
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private double avgAge;
+    private int minAge;
+    private int maxAge;
+    private Map<Integer, Long> ageBuckets;  // 10살 단위 구간 시작 나이 -> 회원 수
+
+    public TeamSummaryDto(Long teamId, String teamName, long memberCount, double avgAge, int minAge, int maxAge,
+                          Map<Integer, Long> ageBuckets) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.avgAge = avgAge;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.ageBuckets = ageBuckets;
+    }
+}
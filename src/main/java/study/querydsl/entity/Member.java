@@ -2,14 +2,28 @@ package study.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.querydsl.event.EntityChangeListener;
 
 @Entity
+@Table(indexes = {      // 검색조건(username, age)과 팀 조인 경로
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_team_id", columnList = "team_id")
+})
+@EntityListeners(EntityChangeListener.class)
+@Cacheable      // 쿼리 캐시(findByUsername)는 id 만 저장 -> 엔티티도 캐시되어야 캐시 히트시 select 가 없음
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
 
-    @Id @GeneratedValue
+    // pooled 시퀀스 -> 시퀀스 조회 한번에 id 를 allocationSize 개씩 확보 (대량 insert 시 배치가 끊기지 않음)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 500)
     @Column(name = "member_id")
     private Long id;
 
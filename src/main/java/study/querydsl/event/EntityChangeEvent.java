@@ -0,0 +1,43 @@
+package study.querydsl.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+/**
+ * Member, Team 변경 이벤트
+ * 엔티티 단건 변경(JPA 콜백)과 벌크 update/delete 를 같은 이벤트로 발행해서
+ * 캐시 등 파생 데이터가 한곳에서 무효화 할 수 있게 한다.
+ * */
+@Getter
+@ToString(of = {"entityType", "type"})
+public class EntityChangeEvent {
+
+    public enum Type { PERSIST, UPDATE, REMOVE, BULK }
+
+    private final Class<?> entityType;
+    private final Type type;
+    private final Object entity;    // BULK 일때는 null
+
+    private EntityChangeEvent(Class<?> entityType, Type type, Object entity) {
+        this.entityType = entityType;
+        this.type = type;
+        this.entity = entity;
+    }
+
+    public static EntityChangeEvent of(Object entity, Type type) {
+        return new EntityChangeEvent(Hibernate.getClass(entity), type, entity);
+    }
+
+    public static EntityChangeEvent bulk(Class<?> entityType) {
+        return new EntityChangeEvent(entityType, Type.BULK, null);
+    }
+
+    public boolean isAbout(Class<?> type) {
+        return type.isAssignableFrom(entityType);
+    }
+
+    public boolean isBulk() {
+        return type == Type.BULK;
+    }
+}
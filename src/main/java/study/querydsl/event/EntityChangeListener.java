@@ -0,0 +1,41 @@
+package study.querydsl.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * @EntityListeners 로 등록하는 JPA 콜백
+ * 하이버네이트가 SpringBeanContainer 를 통해 빈으로 생성하므로 주입 가능
+ * */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void postPersist(Object entity){
+        publish(entity, EntityChangeEvent.Type.PERSIST);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity){
+        publish(entity, EntityChangeEvent.Type.UPDATE);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity){
+        publish(entity, EntityChangeEvent.Type.REMOVE);
+    }
+
+    // 대량 적재 중에는 행마다 발행하지 않음 (EntityChangeSuppression)
+    private void publish(Object entity, EntityChangeEvent.Type type){
+        if (!EntityChangeSuppression.isSuppressed()) {
+            publisher.publishEvent(EntityChangeEvent.of(entity, type));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package study.querydsl.event;
+
+/**
+ * 현재 스레드의 엔티티 단건 변경 알림(EntityChangeListener, TeamSummaryEventListener)을 끔
+ * 대량 적재처럼 행마다 캐시/인덱스를 갱신할 필요가 없는 작업용
+ * -> 끝난 뒤 EntityChangeEvent.bulk 를 발행해서 파생 데이터를 한번에 무효화해야 함
+ * */
+public final class EntityChangeSuppression {
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = ThreadLocal.withInitial(() -> false);
+
+    private EntityChangeSuppression() {
+    }
+
+    public static boolean isSuppressed() {
+        return SUPPRESSED.get();
+    }
+
+    public static void run(Runnable action) {
+        boolean previous = SUPPRESSED.get();
+        SUPPRESSED.set(true);
+        try {
+            action.run();
+        } finally {
+            SUPPRESSED.set(previous);
+        }
+    }
+}
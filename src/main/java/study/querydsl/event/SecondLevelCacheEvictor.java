@@ -0,0 +1,39 @@
+package study.querydsl.event;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.querydsl.config.SecondLevelCacheConfig;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * 벌크 update/delete 후 관련 2차 캐시 리전 비우기
+ * 하이버네이트도 벌크 HQL 의 대상 테이블 리전을 비우지만 회원 조회 쿼리 캐시까지 확실히 비우기 위함
+ * */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+
+    private final EntityManagerFactory emf;
+
+    @EventListener
+    public void onBulk(EntityChangeEvent event) {
+        if (!event.isBulk()) {
+            return;
+        }
+
+        Cache cache = emf.unwrap(SessionFactory.class).getCache();
+        if (event.isAbout(Member.class)) {
+            cache.evictEntityData(Member.class);
+            cache.evictQueryRegion(SecondLevelCacheConfig.MEMBER_BY_USERNAME_REGION);
+        }
+        if (event.isAbout(Team.class)) {
+            cache.evictEntityData(Team.class);
+            cache.evictQueryRegion(SecondLevelCacheConfig.MEMBER_BY_USERNAME_REGION);  // 회원 조회 결과에 팀이 연관됨
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package study.querydsl.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamSummaryRepository;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Member, Team 변경을 커밋 후에 TeamSummaryRepository 에 증분 반영
+ * JPA 콜백(@PostUpdate)은 변경 전 값을 알 수 없어서 하이버네이트 post-commit 리스너 사용
+ * -> 팀 변경(changeTeam), 나이 변경시 이전 팀/나이에서 빼고 새 팀/나이에 더함
+ * 회원 변경이 flush 될 때 순번을 받아 커밋 후 반영에 같이 넘김 -> 재집계 스냅샷과 겹친 변경을 두번 세지 않도록
+ * 한 세션의 커밋 후 리스너는 flush 된 순서대로 같은 스레드에서 호출되므로 세션별 큐로 짝을 맞춤
+ * */
+@Component
+@RequiredArgsConstructor
+public class TeamSummaryEventListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+    private final TeamSummaryRepository teamSummaryRepository;
+
+    private final ThreadLocal<Map<Object, ArrayDeque<Long>>> flushSequences = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        // PostCommit*EventListener 가 Post*EventListener 를 상속하므로 flush 시점 리스너는 따로 등록
+        FlushListener flushListener = new FlushListener();
+        registry.appendListeners(EventType.POST_INSERT, flushListener);
+        registry.appendListeners(EventType.POST_UPDATE, flushListener);
+        registry.appendListeners(EventType.POST_DELETE, flushListener);
+    }
+
+    // action 을 만들 때 현재 스레드에서 호출됨 -> 대량 적재 중이면 커밋 후 처리를 등록하지 않음
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        if (EntityChangeSuppression.isSuppressed()) {
+            return false;
+        }
+        Class<?> type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            // 엔티티는 커밋 후에 바뀌었을 수 있으므로 insert 된 값(state) 사용
+            EntityPersister persister = event.getPersister();
+            Object[] state = event.getState();
+            teamSummaryRepository.memberAdded(nextFlushed(event.getSession()),
+                    teamId(state[propertyIndex(persister, "team")]), (int) state[propertyIndex(persister, "age")]);
+        } else if (event.getEntity() instanceof Team t) {
+            teamSummaryRepository.teamSaved(t.getId(), t.getName());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            long flushed = nextFlushed(event.getSession());
+            Object[] oldState = event.getOldState();
+            if (oldState == null) {     // 변경 전 값을 모르면(분리된 엔티티 update 등) 다시 집계
+                teamSummaryRepository.markStale();
+                return;
+            }
+            EntityPersister persister = event.getPersister();
+            Object[] state = event.getState();
+            int team = propertyIndex(persister, "team");
+            int age = propertyIndex(persister, "age");
+            teamSummaryRepository.memberChanged(flushed, teamId(oldState[team]), (int) oldState[age],
+                    teamId(state[team]), (int) state[age]);
+        } else if (event.getEntity() instanceof Team t) {
+            teamSummaryRepository.teamSaved(t.getId(), t.getName());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            EntityPersister persister = event.getPersister();
+            Object[] state = event.getDeletedState();
+            teamSummaryRepository.memberRemoved(nextFlushed(event.getSession()), teamId(state[propertyIndex(persister, "team")]),
+                    (int) state[propertyIndex(persister, "age")]);
+        } else if (event.getEntity() instanceof Team) {
+            teamSummaryRepository.teamRemoved((Long) event.getId());
+        }
+    }
+
+    // 커밋 실패(롤백)시에는 반영할 것이 없음, flush 때 받은 순번만 정리
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        commitFailed(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        commitFailed(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        commitFailed(event.getSession(), event.getEntity());
+    }
+
+    private void commitFailed(Object session, Object entity) {
+        if (entity instanceof Member) {
+            nextFlushed(session);
+        }
+    }
+
+    private void recordFlush(Object session) {
+        flushSequences.get().computeIfAbsent(session, k -> new ArrayDeque<>()).add(teamSummaryRepository.memberFlushed());
+    }
+
+    // 짝이 없으면(flush 리스너 등록 전 변경 등) 0 -> 스냅샷에 들어갔을 수 있는 것으로 보고 그 팀을 다시 집계
+    private long nextFlushed(Object session) {
+        Map<Object, ArrayDeque<Long>> bySession = flushSequences.get();
+        ArrayDeque<Long> queue = bySession.get(session);
+        if (queue == null) {
+            return 0;
+        }
+        Long sequence = queue.poll();
+        if (queue.isEmpty()) {
+            bySession.remove(session);
+        }
+        return sequence;
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        return persister.getEntityMetamodel().getPropertyIndex(property);
+    }
+
+    // 같은 action 에서 커밋 후 리스너가 한번 따라옴
+    private class FlushListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            memberFlushed(event.getSession(), event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            memberFlushed(event.getSession(), event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            memberFlushed(event.getSession(), event.getEntity());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void memberFlushed(Object session, Object entity) {
+            if (entity instanceof Member && !EntityChangeSuppression.isSuppressed()) {
+                recordFlush(session);
+            }
+        }
+    }
+
+    // 프록시여도 id 조회는 초기화하지 않음
+    private static Long teamId(Object team) {
+        return team == null ? null : ((Team) team).getId();
+    }
+}
@@ -0,0 +1,104 @@
+package study.querydsl.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 범위(요청, 테스트 메서드) 단위로 실행된 SQL 을 모아서 N+1 패턴을 찾음
+ *
+ * try (NPlusOneDetector.Scope scope = detector.open("test")) {
+ *     ...
+ *     scope.report().assertNoNPlusOne();
+ * }
+ * */
+@Component
+public class NPlusOneDetector extends SimpleJdbcEventListener {
+
+    private static final int MAX_SAMPLES = 3;
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final int threshold;
+
+    public NPlusOneDetector(@Value("${app.sql.n-plus-one.threshold:3}") int threshold) {
+        this.threshold = threshold;
+    }
+
+    public Scope open(String name) {
+        Scope scope = new Scope(name, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(statementInformation);
+        }
+    }
+
+    public class Scope implements AutoCloseable {
+
+        private final String name;
+        private final Scope parent;
+        private final Map<String, Executions> executions = new LinkedHashMap<>();
+        private long totalStatements;
+
+        private Scope(String name, Scope parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        private void record(StatementInformation statementInformation) {
+            String sql = SqlNormalizer.normalize(statementInformation.getSql());
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                scope.record(sql, statementInformation);
+            }
+        }
+
+        private void record(String sql, StatementInformation statementInformation) {
+            totalStatements++;
+            if (!SqlNormalizer.isSelect(sql)) {
+                return;     // insert 배치, 벌크 update 등은 대상 아님
+            }
+            Executions e = executions.computeIfAbsent(sql, k -> new Executions());
+            e.count++;
+            if (e.samples.size() < MAX_SAMPLES) {
+                e.samples.add(statementInformation.getSqlWithValues());
+            }
+        }
+
+        public NPlusOneReport report() {
+            List<NPlusOneReport.Suspect> suspects = new ArrayList<>();
+            executions.forEach((sql, e) -> {
+                if (e.count >= threshold) {
+                    suspects.add(new NPlusOneReport.Suspect(sql, e.count, List.copyOf(e.samples)));
+                }
+            });
+            return new NPlusOneReport(name, threshold, totalStatements, suspects);
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    private static class Executions {
+        private int count;
+        private final List<String> samples = new ArrayList<>(MAX_SAMPLES);
+    }
+}
@@ -0,0 +1,38 @@
+package study.querydsl.monitor;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// HTTP 요청 단위로 N+1 을 감지해서 로그로 남김 (OSIV 로 뷰 렌더링중 일어나는 지연로딩까지 포함)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sql.n-plus-one", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class NPlusOneFilter extends OncePerRequestFilter {
+
+    private final NPlusOneDetector detector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        NPlusOneDetector.Scope scope = detector.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            NPlusOneReport report = scope.report();
+            if (report.hasNPlusOne()) {
+                log.warn(report.format());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.monitor;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 한 범위(요청, 테스트 메서드) 동안 실행된 SQL 요약
+ * 같은 select 가 파라미터만 바뀌어 threshold 번 이상 실행되면 N+1 의심
+ * */
+@Getter
+public class NPlusOneReport {
+
+    private final String scope;
+    private final int threshold;
+    private final long totalStatements;
+    private final List<Suspect> suspects;
+
+    public NPlusOneReport(String scope, int threshold, long totalStatements, List<Suspect> suspects) {
+        this.scope = scope;
+        this.threshold = threshold;
+        this.totalStatements = totalStatements;
+        this.suspects = suspects;
+    }
+
+    public boolean hasNPlusOne() {
+        return !suspects.isEmpty();
+    }
+
+    public NPlusOneReport assertNoNPlusOne() {
+        if (hasNPlusOne()) {
+            throw new NPlusOneDetectedException(format());
+        }
+        return this;
+    }
+
+    public NPlusOneReport assertMaxStatements(long max) {
+        if (totalStatements > max) {
+            throw new NPlusOneDetectedException("SQL " + totalStatements + "번 실행 (최대 " + max + ")\n" + format());
+        }
+        return this;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder()
+                .append("[").append(scope).append("] SQL ").append(totalStatements).append("번 실행");
+        for (Suspect suspect : suspects) {
+            sb.append("\n  N+1 의심 ").append(suspect.getCount()).append("번: ").append(suspect.getSql());
+            for (String sample : suspect.getSamples()) {
+                sb.append("\n    ex) ").append(sample);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Getter
+    public static class Suspect {
+
+        private final String sql;
+        private final int count;
+        private final List<String> samples;     // 바인딩 값이 들어간 실제 SQL 몇개
+
+        public Suspect(String sql, int count, List<String> samples) {
+            this.sql = sql;
+            this.count = count;
+            this.samples = samples;
+        }
+    }
+
+    public static class NPlusOneDetectedException extends IllegalStateException {
+
+        public NPlusOneDetectedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package study.querydsl.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.CursorPage;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.support.MemberSearchShape;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 레포지토리 메서드 x 검색조건 모양 별 쿼리 메트릭
+ * - member.query            : 실행시간 히스토그램
+ * - member.query.rows       : 결과 행 수
+ * - member.query.statements : 실행된 SQL 수
+ * 미터는 (메서드, 모양) 조합별로 한번만 만들고 재사용
+ * */
+@Component
+@RequiredArgsConstructor
+public class QueryMetrics {
+
+    private final MeterRegistry registry;
+    private final SqlStatementCounter statementCounter;
+
+    private final ConcurrentMap<String, AtomicReferenceArray<Meters>> meters = new ConcurrentHashMap<>();
+
+    public <T> T record(String method, MemberSearchCondition condition, Supplier<T> query) {
+        return record(method, MemberSearchShape.of(condition), query);
+    }
+
+    public <T> T record(String method, int shape, Supplier<T> query) {
+        Meters m = meters(method, shape);
+        long statementsBefore = statementCounter.current();
+        long start = System.nanoTime();
+        try {
+            T result = query.get();
+            m.rows.record(rowCount(result));
+            return result;
+        } finally {
+            m.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            m.statements.record(statementCounter.current() - statementsBefore);
+        }
+    }
+
+    private Meters meters(String method, int shape) {
+        AtomicReferenceArray<Meters> byShape =
+                meters.computeIfAbsent(method, k -> new AtomicReferenceArray<>(MemberSearchShape.TAGS));
+        Meters m = byShape.get(shape);
+        if (m == null) {
+            byShape.compareAndSet(shape, null, new Meters(registry, method, MemberSearchShape.name(shape)));
+            m = byShape.get(shape);
+        }
+        return m;
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof CursorPage<?> page) {
+            return page.getContents().size();
+        }
+        return result == null ? 0 : 1;
+    }
+
+    private static final class Meters {
+
+        private final Timer latency;
+        private final DistributionSummary rows;
+        private final DistributionSummary statements;
+
+        // 같은 이름, 태그면 레지스트리가 기존 미터를 돌려주므로 경쟁으로 두번 만들어져도 문제 없음
+        private Meters(MeterRegistry registry, String method, String shape) {
+            this.latency = Timer.builder("member.query")
+                    .description("member repository query latency")
+                    .tag("method", method)
+                    .tag("shape", shape)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.rows = DistributionSummary.builder("member.query.rows")
+                    .tag("method", method)
+                    .tag("shape", shape)
+                    .register(registry);
+            this.statements = DistributionSummary.builder("member.query.statements")
+                    .tag("method", method)
+                    .tag("shape", shape)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package study.querydsl.monitor;
+
+import lombok.Getter;
+import study.querydsl.repository.support.MemberSearchShape;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색조건 모양 하나에 대해 실제 실행된 SQL 과 EXPLAIN 결과
+ * */
+@Getter
+public class QueryPlan {
+
+    private final int shape;
+    private final String sql;
+    private final List<String> plan;
+    private final List<String> fullScans;   // 인덱스 없이 전체를 읽는 테이블
+
+    public QueryPlan(int shape, String sql, List<String> plan, List<String> fullScans) {
+        this.shape = shape;
+        this.sql = sql;
+        this.plan = plan;
+        this.fullScans = fullScans;
+    }
+
+    public boolean isFullScan(String table) {
+        return fullScans.contains(table);
+    }
+
+    // EXPLAIN 결과에 인덱스 이름이 나오는지 (H2 는 대문자, MariaDB 는 key 컬럼)
+    public boolean usesIndex(String index) {
+        String name = index.toLowerCase(Locale.ROOT);
+        return plan.stream().anyMatch(line -> line.toLowerCase(Locale.ROOT).contains(name));
+    }
+
+    public String format() {
+        return "[" + MemberSearchShape.name(shape) + "] fullScans=" + fullScans
+                + "\n  sql: " + sql
+                + "\n  plan: " + String.join("\n        ", plan);
+    }
+}
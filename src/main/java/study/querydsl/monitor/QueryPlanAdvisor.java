@@ -0,0 +1,118 @@
+package study.querydsl.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.support.MemberSearchQueryCache;
+import study.querydsl.repository.support.MemberSearchShape;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 검색조건 모양별로 Querydsl 이 만든 SQL 을 실제로 실행해서 잡아낸 뒤 EXPLAIN 으로 풀스캔 여부 확인 (H2, MariaDB)
+ * 인덱스가 빠지거나 쿼리 모양이 바뀌어서 풀스캔이 생기면 테스트에서 드러나도록 하기 위함
+ * */
+@Slf4j
+@Component
+public class QueryPlanAdvisor {
+
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("(\\w+)\\.tableScan");
+    private static final Pattern TABLE_ALIAS = Pattern.compile("(?:from|join)\\s+(\\w+)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final MemberSearchQueryCache searchQueryCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlCapture sqlCapture;
+
+    public QueryPlanAdvisor(MemberSearchQueryCache searchQueryCache, JdbcTemplate jdbcTemplate, SqlCapture sqlCapture) {
+        this.searchQueryCache = searchQueryCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlCapture = sqlCapture;
+    }
+
+    public List<QueryPlan> adviseAll() {
+        List<QueryPlan> plans = new ArrayList<>(MemberSearchShape.COUNT);
+        for (int shape = 0; shape < MemberSearchShape.COUNT; shape++) {
+            QueryPlan plan = advise(shape);
+            if (!plan.getFullScans().isEmpty() && shape != 0) {     // 조건이 없으면 풀스캔이 당연
+                log.warn("풀스캔 쿼리 {}", plan.format());
+            }
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    public QueryPlan advise(int shape) {
+        String sql = capture(sampleCondition(shape));
+        List<String> plan;
+        List<String> fullScans;
+        if (databaseProduct().contains("h2")) {
+            plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+            fullScans = h2FullScans(plan);
+        } else {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + sql);
+            plan = rows.stream().map(Object::toString).toList();
+            fullScans = mariaDbFullScans(sql, rows);
+        }
+        return new QueryPlan(shape, sql, plan, fullScans);
+    }
+
+    // 실행된 SQL 을 값이 들어간 형태로 잡아냄
+    private String capture(MemberSearchCondition condition) {
+        List<String> captured = sqlCapture.capture(() -> searchQueryCache.fetch(condition, 0, 1));
+        Assert.state(captured.size() == 1, () -> "검색 SQL 하나만 실행되어야 함 captured=" + captured);
+        return captured.get(0);
+    }
+
+    private String databaseProduct() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        return product == null ? "" : product.toLowerCase(Locale.ROOT);
+    }
+
+    // ex) /* PUBLIC.MEMBER.tableScan */
+    private static List<String> h2FullScans(List<String> plan) {
+        List<String> tables = new ArrayList<>();
+        for (String line : plan) {
+            Matcher matcher = H2_TABLE_SCAN.matcher(line);
+            while (matcher.find()) {
+                tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return tables;
+    }
+
+    // type = ALL 이 풀스캔, table 컬럼에는 별칭이 나오므로 SQL 에서 원래 테이블명을 찾음
+    private static List<String> mariaDbFullScans(String sql, List<Map<String, Object>> rows) {
+        Map<String, String> aliases = new HashMap<>();
+        Matcher matcher = TABLE_ALIAS.matcher(sql);
+        while (matcher.find()) {
+            aliases.put(matcher.group(2).toLowerCase(Locale.ROOT), matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+
+        List<String> tables = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            if ("ALL".equalsIgnoreCase(String.valueOf(row.get("type")))) {
+                String alias = String.valueOf(row.get("table")).toLowerCase(Locale.ROOT);
+                tables.add(aliases.getOrDefault(alias, alias));
+            }
+        }
+        return tables;
+    }
+
+    private static MemberSearchCondition sampleCondition(int shape) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (MemberSearchShape.has(shape, MemberSearchShape.USERNAME)) condition.setUsername("member1");
+        if (MemberSearchShape.has(shape, MemberSearchShape.TEAM_NAME)) condition.setTeamName("teamA");
+        if (MemberSearchShape.has(shape, MemberSearchShape.AGE_GOE)) condition.setAgeGoe(10);
+        if (MemberSearchShape.has(shape, MemberSearchShape.AGE_LOE)) condition.setAgeLoe(20);
+        return condition;
+    }
+}
@@ -0,0 +1,39 @@
+package study.querydsl.monitor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/slowqueries?top=20 -> 최근 느린 SQL, 누적 시간 상위 SQL 통계
+ * DELETE /actuator/slowqueries -> 초기화
+ * */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public Map<String, Object> slowQueries(@Nullable Integer top) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threshold", slowQueryLog.getThreshold().toString());
+        result.put("recent", slowQueryLog.recent());
+        result.put("statements", slowQueryLog.topStatements(top == null ? DEFAULT_TOP : top));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+}
@@ -0,0 +1,214 @@
+package study.querydsl.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 느린 SQL 기록 (p6spy 리스너)
+ * - threshold 이상 걸린 SQL 을 최근 bufferSize 개 링버퍼에 보관 (바인딩 값, 호출한 repository 메서드, 커넥션 획득 시간 포함)
+ * - 모든 SQL 은 정규화된 문장별로 횟수/누적/최대 시간만 집계
+ * 링버퍼, 집계 모두 잠금 없이 동작 -> /actuator/slowqueries 로 조회
+ * */
+@Component
+public class SlowQueryLog extends SimpleJdbcEventListener {
+
+    private static final String OTHER = "(other)";
+    private static final String ORIGIN_PACKAGE = "study.querydsl.";
+    // 실제 호출한 repository 메서드가 보이도록 건너뛰는 공통 코드 ('.' 로 끝나면 패키지, 아니면 클래스)
+    private static final List<String> INFRASTRUCTURE = List.of(
+            SlowQueryLog.class.getName(),
+            QueryMetrics.class.getName(),
+            "study.querydsl.repository.support.");
+
+    private final long thresholdNanos;
+    private final int maxStatements;
+    private final AtomicReferenceArray<SlowQuery> buffer;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<String, SqlStats> stats = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(@Value("${app.sql.slow-query.threshold:200ms}") Duration threshold,
+                        @Value("${app.sql.slow-query.buffer-size:100}") int bufferSize,
+                        @Value("${app.sql.slow-query.max-statements:1000}") int maxStatements) {
+        Assert.isTrue(bufferSize > 0, "app.sql.slow-query.buffer-size 는 1 이상이어야 합니다.");
+        Assert.isTrue(maxStatements > 0, "app.sql.slow-query.max-statements 는 1 이상이어야 합니다.");
+        this.thresholdNanos = threshold.toNanos();
+        this.maxStatements = maxStatements;
+        this.buffer = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        long acquireNanos = statementInformation.getConnectionInformation() == null ? 0
+                : statementInformation.getConnectionInformation().getTimeToGetConnectionNs();
+        record(statementInformation.getSql(), statementInformation::getSqlWithValues, timeElapsedNanos, acquireNanos, e);
+    }
+
+    void record(String sql, Supplier<String> sqlWithValues, long elapsedNanos, long acquireNanos, SQLException e) {
+        if (sql == null || sql.isBlank()) {
+            return;     // commit, rollback 등
+        }
+        String normalized = SqlNormalizer.normalize(sql);
+        boolean slow = elapsedNanos >= thresholdNanos;
+        statsFor(normalized).record(elapsedNanos, slow);
+
+        if (slow) {
+            // 느린 경우에만 바인딩 값 조합, 스택 탐색
+            long seq = sequence.getAndIncrement();
+            SlowQuery slowQuery = new SlowQuery(seq, Instant.now(), toMillis(elapsedNanos), toMillis(acquireNanos),
+                    sqlWithValues.get(), normalized, origin(), e == null ? null : e.getMessage());
+            buffer.set((int) (seq % buffer.length()), slowQuery);
+        }
+    }
+
+    // 최신순, 슬롯에 읽으려는 순번이 아닌 항목(늦게 쓰인 이전 바퀴, reset 이전 기록)이 들어 있으면 건너뜀
+    public List<SlowQuery> recent() {
+        long end = sequence.get();
+        long start = Math.max(0, end - buffer.length());
+        List<SlowQuery> result = new ArrayList<>((int) (end - start));
+        for (long seq = end - 1; seq >= start; seq--) {
+            SlowQuery slowQuery = buffer.get((int) (seq % buffer.length()));
+            if (slowQuery != null && slowQuery.getSequence() == seq) {
+                result.add(slowQuery);
+            }
+        }
+        return result;
+    }
+
+    // 누적 시간이 큰 순
+    public List<SqlStatsSnapshot> topStatements(int limit) {
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingDouble(SqlStatsSnapshot::getTotalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public void reset() {
+        stats.clear();
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+        sequence.set(0);
+    }
+
+    // 문장 종류가 끝없이 늘어나도(IN 절 리터럴 등) 메모리가 커지지 않도록 상한을 넘으면 (other) 로 모음
+    private SqlStats statsFor(String normalized) {
+        SqlStats existing = stats.get(normalized);
+        if (existing != null) {
+            return existing;
+        }
+        String key = stats.size() < maxStatements ? normalized : OTHER;
+        return stats.computeIfAbsent(key, k -> new SqlStats());
+    }
+
+    // 이 SQL 을 실행한 애플리케이션 코드 (repository 메서드 등)
+    private static String origin() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(ORIGIN_PACKAGE)
+                        && !isInfrastructure(frame.getClassName())
+                        && !frame.getClassName().contains("$$"))      // 프록시 클래스 제외
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse(null));
+    }
+
+    // 클래스는 중첩 클래스까지만 -> SlowQueryLogTest 같은 이름이 비슷한 클래스는 건너뛰지 않음
+    private static boolean isInfrastructure(String className) {
+        return INFRASTRUCTURE.stream().anyMatch(name -> name.endsWith(".")
+                ? className.startsWith(name)
+                : className.equals(name) || className.startsWith(name + "$"));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Getter
+    public static class SlowQuery {
+
+        private final long sequence;
+        private final Instant executedAt;
+        private final double elapsedMillis;
+        private final double connectionAcquireMillis;
+        private final String sql;           // 바인딩 값 포함
+        private final String normalizedSql;
+        private final String origin;
+        private final String error;
+
+        public SlowQuery(long sequence, Instant executedAt, double elapsedMillis, double connectionAcquireMillis,
+                         String sql, String normalizedSql, String origin, String error) {
+            this.sequence = sequence;
+            this.executedAt = executedAt;
+            this.elapsedMillis = elapsedMillis;
+            this.connectionAcquireMillis = connectionAcquireMillis;
+            this.sql = sql;
+            this.normalizedSql = normalizedSql;
+            this.origin = origin;
+            this.error = error;
+        }
+    }
+
+    @Getter
+    public static class SqlStatsSnapshot {
+
+        private final String sql;
+        private final long count;
+        private final long slowCount;
+        private final double totalMillis;
+        private final double avgMillis;
+        private final double maxMillis;
+
+        public SqlStatsSnapshot(String sql, long count, long slowCount, double totalMillis, double maxMillis) {
+            this.sql = sql;
+            this.count = count;
+            this.slowCount = slowCount;
+            this.totalMillis = totalMillis;
+            this.avgMillis = count == 0 ? 0 : totalMillis / count;
+            this.maxMillis = maxMillis;
+        }
+    }
+
+    private static class SqlStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        private void record(long elapsedNanos, boolean slow) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            if (slow) {
+                slowCount.increment();
+            }
+        }
+
+        private SqlStatsSnapshot snapshot(String sql) {
+            return new SqlStatsSnapshot(sql, count.sum(), slowCount.sum(), toMillis(totalNanos.sum()), toMillis(maxNanos.get()));
+        }
+    }
+}
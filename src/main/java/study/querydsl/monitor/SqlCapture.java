@@ -0,0 +1,39 @@
+package study.querydsl.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 구간 안에서 현재 스레드가 실행한 SQL 을 값이 들어간 형태로 잡아냄 (QueryPlanAdvisor)
+ * p6spy 리스너는 DataSource 를 감쌀 때 만들어지므로 DataSource 에 의존하는 빈을 주입받으면 안 됨
+ * -> 순환이 생기면 데코레이터가 빠진 채로 DataSource 가 만들어져서 모든 리스너가 SQL 을 받지 못함
+ * */
+@Component
+public class SqlCapture extends SimpleJdbcEventListener {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(statementInformation.getSqlWithValues());
+        }
+    }
+
+    public List<String> capture(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+}
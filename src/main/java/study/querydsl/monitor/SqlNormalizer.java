@@ -0,0 +1,34 @@
+package study.querydsl.monitor;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 파라미터 값만 다른 SQL 을 같은 문자열로 만듦
+ * 문자열/숫자 리터럴 -> ?, in (?, ?, ?) -> in (?), 공백 정리, 소문자
+ * */
+public final class SqlNormalizer {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlNormalizer() {
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
+        return normalized.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static boolean isSelect(String normalizedSql) {
+        return normalizedSql.startsWith("select") || normalizedSql.startsWith("with");
+    }
+}
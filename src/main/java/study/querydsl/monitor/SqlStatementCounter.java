@@ -0,0 +1,48 @@
+package study.querydsl.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 스레드별 SQL 실행 횟수
+ * p6spy 스타터가 JdbcEventListener 빈을 자동으로 등록해줌
+ * 다른 스레드에서 실행하는 쿼리(ParallelQueryExecutor)는 propagate 로 감싸면 제출한 스레드의 카운터로 셈
+ * */
+@Component
+public class SqlStatementCounter extends SimpleJdbcEventListener {
+
+    // 여러 스레드가 같은 카운터를 공유할 수 있으므로 AtomicLong
+    private static final ThreadLocal<AtomicLong> COUNT = ThreadLocal.withInitial(AtomicLong::new);
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        COUNT.get().incrementAndGet();
+    }
+
+    // 현재 스레드에서 지금까지 실행된 SQL 수, 구간 전후 차이로 사용
+    public long current() {
+        return COUNT.get().get();
+    }
+
+    /**
+     * 지금 스레드의 카운터를 task 를 실행하는 스레드에서도 사용
+     * 구간이 끝난 뒤(취소된 작업 등)에 실행된 SQL 은 그 구간에 포함되지 않음
+     * */
+    public <T> Callable<T> propagate(Callable<T> task) {
+        AtomicLong owner = COUNT.get();
+        return () -> {
+            AtomicLong previous = COUNT.get();
+            COUNT.set(owner);
+            try {
+                return task.call();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+}
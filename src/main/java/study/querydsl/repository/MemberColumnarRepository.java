@@ -0,0 +1,111 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberColumns;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.support.MemberSearchPredicates;
+import study.querydsl.repository.support.MemberSearchShape;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 분석용 조회 -> ResultSet 에서 바로 MemberColumns 의 primitive 배열로 채움 (Tuple, DTO 를 만들지 않음)
+ * Querydsl JPA 는 JPQL 까지만 만들고 ResultSet 을 노출하지 않아서 검색조건 모양별 SQL 을 직접 조립
+ * 팀 이름은 행마다 문자열로 읽지 않고 team_id 를 팀 사전에서 찾아 코드로 바꿈
+ * */
+@Repository
+@RequiredArgsConstructor
+public class MemberColumnarRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String[] SQL = new String[MemberSearchShape.COUNT];
+
+    static {
+        for (int shape = 0; shape < MemberSearchShape.COUNT; shape++) {
+            SQL[shape] = buildSql(shape);
+        }
+    }
+
+    private final EntityManager em;
+
+    @Transactional(readOnly = true)
+    public MemberColumns fetchColumns(MemberSearchCondition condition) {
+        int shape = MemberSearchShape.of(condition);
+        // 영속성 컨텍스트의 변경 내용이 반영되도록 flush 후 같은 커넥션에서 실행
+        em.flush();
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            TeamDictionary dictionary = loadTeams(connection);
+            MemberColumns columns = new MemberColumns(dictionary.names, FETCH_SIZE);
+
+            try (PreparedStatement statement = connection.prepareStatement(SQL[shape])) {
+                statement.setFetchSize(FETCH_SIZE);
+                bind(statement, shape, condition);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        long teamId = rs.getLong(3);
+                        int teamCode = rs.wasNull() ? MemberColumns.NO_TEAM : dictionary.code(teamId);
+                        columns.add(rs.getLong(1), rs.getInt(2), teamCode);
+                    }
+                }
+            }
+            return columns;
+        });
+    }
+
+    private static TeamDictionary loadTeams(Connection connection) throws SQLException {
+        List<String> names = new ArrayList<>();
+        long[] ids = new long[16];
+        try (PreparedStatement statement = connection.prepareStatement("select t.team_id, t.name from team t order by t.team_id");
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                if (names.size() == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length << 1);
+                }
+                ids[names.size()] = rs.getLong(1);
+                names.add(rs.getString(2));
+            }
+        }
+        return new TeamDictionary(Arrays.copyOf(ids, names.size()), names.toArray(new String[0]));
+    }
+
+    // MemberSearchQueryCache 와 같은 조건(MemberSearchPredicates), 팀 이름 조건이 있을 때만 team 조인
+    private static String buildSql(int shape) {
+        StringBuilder sql = new StringBuilder("select m.member_id, m.age, m.team_id from member m");
+        if (MemberSearchShape.has(shape, MemberSearchShape.TEAM_NAME)) {
+            sql.append(" join team t on t.team_id = m.team_id");
+        }
+        String where = MemberSearchPredicates.sql(shape);
+        if (!where.isEmpty()) {
+            sql.append(" where ").append(where);
+        }
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement statement, int shape, MemberSearchCondition condition) throws SQLException {
+        List<Function<MemberSearchCondition, Object>> values = MemberSearchPredicates.values(shape);
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i).apply(condition));
+        }
+    }
+
+    // team_id 오름차순 정렬 -> 이진 탐색으로 코드(배열 인덱스)를 찾음, 박싱 없음
+    private record TeamDictionary(long[] ids, String[] names) {
+
+        int code(long teamId) {
+            int code = Arrays.binarySearch(ids, teamId);
+            return code >= 0 ? code : MemberColumns.NO_TEAM;
+        }
+    }
+}
@@ -6,15 +6,22 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import study.querydsl.config.SecondLevelCacheConfig;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QTeam;
+import study.querydsl.monitor.QueryMetrics;
+import study.querydsl.repository.support.MemberSearchQueryCache;
+import study.querydsl.repository.support.MemberSearchShape;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
@@ -27,6 +34,10 @@ public class MemberJpaRepository {
 
     private final JPAQueryFactory queryFactory;
 
+    private final MemberSearchQueryCache searchQueryCache;
+
+    private final QueryMetrics queryMetrics;
+
     public List<Member> findAll(){
         return queryFactory
                 .selectFrom(member)
@@ -34,34 +45,54 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByUsername(String username){
-        return queryFactory
+        return queryMetrics.record("MemberJpaRepository.findByUsername", MemberSearchShape.USERNAME, () -> queryFactory
                 .selectFrom(member)
                 .where(member.username.eq(username))
-                .fetch();
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, SecondLevelCacheConfig.MEMBER_BY_USERNAME_REGION)
+                .fetch());
     }
 
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition){
+        return queryMetrics.record("MemberJpaRepository.searchByBuilder", condition, () -> {
+
+            // builder -> 동적쿼리
+            BooleanBuilder builder = new BooleanBuilder();
+
+            if(StringUtils.hasText(condition.getUsername())){
+                builder.and(member.username.eq(condition.getUsername()));
+            }
+
+            if(StringUtils.hasText(condition.getTeamName())){
+                builder.and(team.name.eq(condition.getTeamName()));
+            }
+
+            if(condition.getAgeGoe() != null){
+                builder.and(member.age.goe(condition.getAgeGoe()));
+            }
+
+            if(condition.getAgeLoe() != null){
+                builder.and(member.age.loe(condition.getAgeLoe()));
+            }
+
+            return queryFactory
+                    .select(new QMemberTeamDto(
+                            member.id.as("memberId"),
+                            member.username,
+                            member.age,
+                            team.id.as("teamId"),
+                            team.name.as("teamName")
+                    ))
+                    .from(member)
+                    .where(builder)
+                    .leftJoin(member.team, team)
+                    .fetch();
+        });
+    }
 
-        // builder -> 동적쿼리
-        BooleanBuilder builder = new BooleanBuilder();
-
-        if(StringUtils.hasText(condition.getUsername())){
-            builder.and(member.username.eq(condition.getUsername()));
-        }
-
-        if(StringUtils.hasText(condition.getTeamName())){
-            builder.and(team.name.eq(condition.getTeamName()));
-        }
-
-        if(condition.getAgeGoe() != null){
-            builder.and(member.age.goe(condition.getAgeGoe()));
-        }
-
-        if(condition.getAgeLoe() != null){
-            builder.and(member.age.loe(condition.getAgeLoe()));
-        }
-
-        return queryFactory
+    @Transactional(readOnly = true)     // replica 가 설정되어 있으면 replica 로 라우팅
+    public List<MemberTeamDto> search(MemberSearchCondition condition){
+        return queryMetrics.record("MemberJpaRepository.search", condition, () -> queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -70,13 +101,25 @@ public class MemberJpaRepository {
                         team.name.as("teamName")
                 ))
                 .from(member)
-                .where(builder)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                        )
                 .leftJoin(member.team, team)
-                .fetch();
+                .fetch());
     }
-    
-    public List<MemberTeamDto> search(MemberSearchCondition condition){
-        
+
+    // search 와 같은 결과, 검색조건 모양별로 한번 만든 JPQL 에 값만 바인딩 -> 요청마다 쿼리를 조립/직렬화하지 않음
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchCached(MemberSearchCondition condition){
+        return queryMetrics.record("MemberJpaRepository.searchCached", condition, () -> searchQueryCache.fetch(condition));
+    }
+
+    // 결과 전체를 List 로 올리지 않고 JDBC 커서로 한건씩 읽음 -> 트랜잭션 안에서 사용하고 반드시 close
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition, int fetchSize){
+
         return queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -93,7 +136,9 @@ public class MemberJpaRepository {
                         ageLoe(condition.getAgeLoe())
                         )
                 .leftJoin(member.team, team)
-                .fetch();
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
     }
 
 
@@ -1,7 +1,11 @@
 package study.querydsl.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import study.querydsl.config.SecondLevelCacheConfig;
 import study.querydsl.entity.Member;
 
 import java.util.List;
@@ -9,5 +13,10 @@ import java.util.List;
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
+    // 쿼리 캐시 -> member 테이블이 변경되면 하이버네이트가 자동으로 무효화
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MEMBER_BY_USERNAME_REGION)
+    })
     List<Member> findByUsername(String username);
 }
@@ -2,6 +2,9 @@ package study.querydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.CursorPage;
+import study.querydsl.dto.EstimatedPage;
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 
@@ -11,5 +14,17 @@ public interface MemberRepositoryCustom {
 
     List<MemberTeamDto> search(MemberSearchCondition condition);
 
+    // search 와 같은 결과, 조건 모양별로 캐시한 JPQL 사용
+    List<MemberTeamDto> searchCached(MemberSearchCondition condition);
+
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+
+    // total 을 DB 통계/표본으로 추정 (EstimatedPage.totalEstimated), 마지막 페이지처럼 정확히 알 수 있으면 정확한 값
+    EstimatedPage<MemberTeamDto> searchPageEstimated(MemberSearchCondition condition, Pageable pageable);
+
+    // 여러 검색조건을 쿼리 한번으로 조회해서 조건 순서대로 결과를 나눠줌
+    List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions);
+
+    // offset 대신 마지막 조회 위치(cursor) 이후부터 조회 -> 깊은 페이지도 비용이 일정
+    CursorPage<MemberTeamDto> searchByCursor(MemberSearchCondition condition, MemberCursor.SortKey sortKey, String cursor, int size);
 }
@@ -1,32 +1,91 @@
 package study.querydsl.repository;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
-import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import study.querydsl.dto.CursorPage;
+import study.querydsl.dto.EstimatedPage;
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.monitor.QueryMetrics;
+import study.querydsl.repository.support.MemberCountCache;
+import study.querydsl.repository.support.MemberCountEstimator;
+import study.querydsl.repository.support.MemberSearchPredicates;
+import study.querydsl.repository.support.MemberSearchQueryCache;
+import study.querydsl.repository.support.MemberSearchShape;
+import study.querydsl.repository.support.MemberSort;
+import study.querydsl.repository.support.MemberSortTranslator;
+import study.querydsl.repository.support.ParallelQueryExecutor;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import static com.querydsl.core.types.ExpressionUtils.count;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
 
-@RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+    private static final int MAX_CURSOR_SIZE = 1000;
+    private static final int MAX_BATCH_BITS = Long.SIZE - 1;    // 조건별 일치 여부를 long 비트로 표시
+
     private final JPAQueryFactory queryFactory;
+    private final MemberSearchQueryCache searchQueryCache;
+    private final MemberCountCache countCache;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final QueryMetrics queryMetrics;
+    private final MemberCountEstimator countEstimator;
+    private final int maxBatchConditions;
+    private final int maxBatchRows;
+    private final TransactionTemplate readOnlyTx;
+
+    public MemberRepositoryImpl(JPAQueryFactory queryFactory,
+                                MemberSearchQueryCache searchQueryCache,
+                                MemberCountCache countCache,
+                                ParallelQueryExecutor parallelQueryExecutor,
+                                QueryMetrics queryMetrics,
+                                MemberCountEstimator countEstimator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.batch-search.max-conditions:20}") int maxBatchConditions,
+                                @Value("${app.batch-search.max-rows:1000}") int maxBatchRows) {
+        Assert.isTrue(maxBatchConditions > 0 && maxBatchConditions <= MAX_BATCH_BITS,
+                "app.batch-search.max-conditions 는 1 ~ " + MAX_BATCH_BITS + " 사이여야 합니다.");
+        Assert.isTrue(maxBatchRows > 0, "app.batch-search.max-rows 는 1 이상이어야 합니다.");
+        this.queryFactory = queryFactory;
+        this.searchQueryCache = searchQueryCache;
+        this.countCache = countCache;
+        this.parallelQueryExecutor = parallelQueryExecutor;
+        this.queryMetrics = queryMetrics;
+        this.countEstimator = countEstimator;
+        this.maxBatchConditions = maxBatchConditions;
+        this.maxBatchRows = maxBatchRows;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);     // replica 가 설정되어 있으면 replica 로 라우팅
+    }
 
     @Override
+    @Transactional(readOnly = true)     // replica 가 설정되어 있으면 replica 로 라우팅
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
+        return queryMetrics.record("MemberRepository.search", condition, () -> queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -35,67 +94,217 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
                         team.name.as("teamName")
                 ))
                 .from(member)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
+                .where(MemberSearchPredicates.of(condition))
                 .leftJoin(member.team, team)
-                .fetch();
+                .fetch());
+    }
+
+    // search 와 같은 결과, 검색조건 모양별로 한번 만든 JPQL 에 값만 바인딩
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> searchCached(MemberSearchCondition condition) {
+        return queryMetrics.record("MemberRepository.searchCached", condition, () -> searchQueryCache.fetch(condition));
     }
 
+    // 동시 실행 여부를 트랜잭션 경계 전에 결정 -> 동시 실행이면 요청 스레드는 커넥션을 잡지 않음
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        return queryMetrics.record("MemberRepository.searchPageComplex", condition, () -> searchPage(condition, pageable));
+    }
 
-        List<MemberTeamDto> contents = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .leftJoin(member.team, team)
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetch();
+    private Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        // 허용하지 않는 정렬이면 쿼리를 시작하기 전에 400
+        MemberSort sort = MemberSortTranslator.translate(pageable.getSort());
 
-        JPAQuery<Long> total = queryFactory
-                .select(member.count())
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                );
-
-        return PageableExecutionUtils.getPage(contents, pageable, total::fetchOne);     // contents, pageable 을 확인해서 마지막 쿼리일땐 total 쿼리를 실행안함
-        //return new PageImpl<>(contents, pageable, total);
+        // count 가 캐시에 있으면 content 쿼리 하나만 실행하면 되므로 동시 실행할 필요 없음
+        if (parallelQueryExecutor.isEnabled() && countCache.getIfPresent(condition) == null) {
+            return searchPageConcurrently(condition, sort, pageable);
+        }
+
+        return readOnlyTx.execute(status -> {
+            List<MemberTeamDto> contents = pageContents(condition, sort, pageable);
+
+            // contents, pageable 을 확인해서 마지막 쿼리일땐 total 쿼리를 실행안함, 실행이 필요하면 캐시부터 확인
+            return PageableExecutionUtils.getPage(contents, pageable, () -> countCache.get(condition, () -> searchQueryCache.count(condition)));
+            //return new PageImpl<>(contents, pageable, total);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstimatedPage<MemberTeamDto> searchPageEstimated(MemberSearchCondition condition, Pageable pageable) {
+        MemberSort sort = MemberSortTranslator.translate(pageable.getSort());
+        return queryMetrics.record("MemberRepository.searchPageEstimated", condition, () -> {
+            List<MemberTeamDto> contents = pageContents(condition, sort, pageable);
+
+            // 페이지가 덜 찼으면 마지막 페이지 -> total 을 정확히 알 수 있음 (PageableExecutionUtils 와 같은 판단)
+            if (pageable.isUnpaged()) {
+                return new EstimatedPage<>(contents, pageable, contents.size(), false);
+            }
+            if (contents.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !contents.isEmpty())) {
+                return new EstimatedPage<>(contents, pageable, pageable.getOffset() + contents.size(), false);
+            }
+
+            Long cached = countCache.getIfPresent(condition);
+            if (cached != null) {
+                return new EstimatedPage<>(contents, pageable, cached, false);
+            }
+            // 작은 테이블 등은 추정기가 정확한 count 를 돌려줌 -> exact 면 추정값 표시를 하지 않음
+            MemberCountEstimator.Estimate estimate = countEstimator.estimate(condition);
+            if (estimate.exact()) {
+                return new EstimatedPage<>(contents, pageable, estimate.count(), false);
+            }
+            // 추정치가 지금까지 본 행 수보다 작으면 페이지가 어긋나 보이므로 하한을 둠
+            long total = Math.max(estimate.count(), pageable.getOffset() + contents.size());
+            return new EstimatedPage<>(contents, pageable, total, true);
+        });
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return StringUtils.hasText(username) ? member.username.eq(username) : null;
+    // content, count 쿼리를 각자의 커넥션에서 동시에 실행 -> 응답시간이 두 쿼리의 합이 아니라 긴 쪽
+    // 두 쿼리를 합쳐서 timeout 까지만 기다림
+    private Page<MemberTeamDto> searchPageConcurrently(MemberSearchCondition condition, MemberSort sort, Pageable pageable) {
+        Future<List<MemberTeamDto>> contentsFuture =
+                parallelQueryExecutor.submit(() -> pageContents(condition, sort, pageable));
+        Future<Long> totalFuture =
+                parallelQueryExecutor.submit(() -> countCache.get(condition, () -> searchQueryCache.count(condition)));
+
+        long deadline = parallelQueryExecutor.deadline();
+        try {
+            List<MemberTeamDto> contents = parallelQueryExecutor.await(contentsFuture, deadline);
+            // 마지막 페이지면 count 결과를 기다리지 않음
+            return PageableExecutionUtils.getPage(contents, pageable, () -> parallelQueryExecutor.await(totalFuture, deadline));
+        } finally {
+            totalFuture.cancel(true);   // 이미 끝났으면 아무일도 없음, 실행중이면 작업 스레드 인터럽트
+        }
+    }
+
+    // 검색조건 모양, 정렬별로 캐시된 JPQL 에 값만 바인딩해서 실행
+    private List<MemberTeamDto> pageContents(MemberSearchCondition condition, MemberSort sort, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return searchQueryCache.fetch(condition, sort, 0, -1);
+        }
+        return searchQueryCache.fetch(condition, sort, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    @Transactional(readOnly = true)     // replica 가 설정되어 있으면 replica 로 라우팅
+    public CursorPage<MemberTeamDto> searchByCursor(MemberSearchCondition condition, MemberCursor.SortKey sortKey, String cursor, int size) {
+        Assert.isTrue(size > 0 && size <= MAX_CURSOR_SIZE, "size 는 1 ~ " + MAX_CURSOR_SIZE + " 사이여야 합니다.");
+
+        // 커서가 있으면 커서에 담긴 정렬키를 따라감, 커서를 만든 검색조건과 다르면 400
+        MemberCursor after = StringUtils.hasText(cursor) ? MemberCursor.decode(cursor) : null;
+        if (after != null) {
+            after.verify(condition);
+        }
+        MemberCursor.SortKey key = after != null ? after.getSortKey() : sortKey;
+
+        return queryMetrics.record("MemberRepository.searchByCursor", condition, () -> {
+            List<MemberTeamDto> contents = queryFactory
+                    .select(new QMemberTeamDto(
+                            member.id.as("memberId"),
+                            member.username,
+                            member.age,
+                            team.id.as("teamId"),
+                            team.name.as("teamName")
+                    ))
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(
+                            MemberSearchPredicates.of(condition),
+                            cursorAfter(key, after)
+                    )
+                    .orderBy(cursorOrder(key))
+                    .limit(size + 1)    // 다음 페이지 존재 여부 확인용으로 하나 더 조회
+                    .fetch();
+
+            boolean hasNext = contents.size() > size;
+            if (hasNext) {
+                contents = contents.subList(0, size);
+            }
+            String nextCursor = hasNext ? MemberCursor.of(key, contents.get(size - 1), condition).encode() : null;
+
+            return new CursorPage<>(contents, size, hasNext, nextCursor);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions) {
+        Assert.notEmpty(conditions, "검색조건이 없습니다.");
+        Assert.isTrue(conditions.size() <= maxBatchConditions, "검색조건은 최대 " + maxBatchConditions + "개 입니다.");
+
+        // 조건 i 에 맞으면 i 번째 비트가 켜지는 mask 컬럼 + 전체 조건의 OR -> 쿼리 한번, 여러 조건에 걸린 행도 한번만 읽음
+        // 빈 조건은 테이블 전체를 읽게 되므로 받지 않음
+        NumberExpression<Long> mask = null;
+        List<Predicate> anyOf = new ArrayList<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            Predicate predicate = MemberSearchPredicates.of(conditions.get(i));
+            Assert.notNull(predicate, "검색조건 " + (i + 1) + "번째가 비어있습니다. 조건을 하나 이상 지정해주세요.");
+            // 상수는 파라미터로 바인딩되면 타입 추론이 안되므로 long 리터럴 템플릿으로
+            NumberExpression<Long> bit = new CaseBuilder()
+                    .when(predicate).then(longLiteral(1L << i))
+                    .otherwise(longLiteral(0));
+            mask = mask == null ? bit : mask.add(bit);
+            anyOf.add(predicate);
+        }
+
+        NumberExpression<Long> matched = mask;
+        // 조건마다 모양이 달라 OR 한 모양은 의미가 없음 -> batch 태그로 따로 집계
+        return queryMetrics.record("MemberRepository.searchBatch", MemberSearchShape.BATCH, () -> {
+            List<List<MemberTeamDto>> result = new ArrayList<>(conditions.size());
+            for (int i = 0; i < conditions.size(); i++) {
+                result.add(new ArrayList<>());
+            }
+
+            List<Tuple> rows = queryFactory
+                    .select(new QMemberTeamDto(
+                                    member.id.as("memberId"),
+                                    member.username,
+                                    member.age,
+                                    team.id.as("teamId"),
+                                    team.name.as("teamName")),
+                            matched)
+                    .from(member)
+                    .leftJoin(member.team, team)
+                    .where(ExpressionUtils.anyOf(anyOf))
+                    .orderBy(member.id.asc())
+                    .limit(maxBatchRows + 1L)
+                    .fetch();
+            // 잘라서 돌려주면 어느 조건의 결과가 빠졌는지 알 수 없음 -> 조건을 좁히도록 거절
+            Assert.isTrue(rows.size() <= maxBatchRows, "검색 결과가 " + maxBatchRows + "건을 넘습니다. 조건을 좁혀주세요.");
+
+            for (Tuple row : rows) {
+                MemberTeamDto dto = row.get(0, MemberTeamDto.class);
+                Number rowMask = row.get(1, Number.class);
+                long bits = rowMask == null ? 0 : rowMask.longValue();
+                for (long rest = bits; rest != 0; rest &= rest - 1) {
+                    result.get(Long.numberOfTrailingZeros(rest)).add(dto);
+                }
+            }
+            return result;
+        });
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return StringUtils.hasText(teamName) ? team.name.eq(teamName) : null;
+    private static NumberExpression<Long> longLiteral(long value) {
+        return Expressions.numberTemplate(Long.class, value + "L");
     }
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    private BooleanExpression cursorAfter(MemberCursor.SortKey key, MemberCursor after) {
+        if (after == null) {
+            return null;
+        }
+        if (key == MemberCursor.SortKey.AGE) {
+            // (age, id) > (cursor.age, cursor.id)
+            return member.age.gt(after.getAge())
+                    .or(member.age.eq(after.getAge()).and(member.id.gt(after.getMemberId())));
+        }
+        return member.id.gt(after.getMemberId());
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    private OrderSpecifier<?>[] cursorOrder(MemberCursor.SortKey key) {
+        if (key == MemberCursor.SortKey.AGE) {
+            return new OrderSpecifier<?>[]{member.age.asc(), member.id.asc()};
+        }
+        return new OrderSpecifier<?>[]{member.id.asc()};
     }
 }
@@ -0,0 +1,11 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.TeamMembersDto;
+
+public interface TeamRepositoryCustom {
+
+    // 팀 페이지 + 팀별 회원, maxMembersPerTeam 이 null 이면 전체 회원
+    Page<TeamMembersDto> findTeamsWithMembers(Pageable pageable, Integer maxMembersPerTeam);
+}
@@ -0,0 +1,137 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.TeamMembersDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 컬렉션(team.members) 페치조인 + 페이징은 하이버네이트가 전체를 읽어서 메모리에서 페이징함 (HHH90003004)
+ * -> 1단계: 팀만 페이징, 2단계: 그 팀들의 회원만 in 조건으로 한번에 조회 (쿼리 2번 + count)
+ * 팀별 회원 수 제한은 row_number() 윈도우 함수 (JPQL/Querydsl 로는 표현이 안돼서 네이티브 SQL)
+ * 정렬은 인덱스가 있는 id, name 만 (MemberSortTranslator 처럼 첫번째 키만 사용), 그 외는 IllegalArgumentException (400)
+ * */
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    // (team_id, member_id) 순서로 읽으면서 팀마다 번호를 매김 -> idx_member_team_id (보조 인덱스에 PK 포함) 순서와 같음
+    private static final String FIRST_MEMBERS_PER_TEAM_SQL = """
+            select ranked.team_id, ranked.username, ranked.age
+            from (
+                select m.team_id, m.member_id, m.username, m.age,
+                       row_number() over (partition by m.team_id order by m.member_id) as rn
+                from member m
+                where m.team_id in (:teamIds)
+            ) ranked
+            where ranked.rn <= :max
+            order by ranked.team_id, ranked.member_id
+            """;
+
+    private static final Map<String, ComparableExpressionBase<?>> SORT_KEYS = Map.of(
+            "id", team.id,
+            "teamId", team.id,
+            "name", team.name,
+            "teamName", team.name
+    );
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TeamMembersDto> findTeamsWithMembers(Pageable pageable, Integer maxMembersPerTeam) {
+        Assert.isTrue(maxMembersPerTeam == null || maxMembersPerTeam > 0, "maxMembersPerTeam 은 1 이상이어야 합니다.");
+        OrderSpecifier<?>[] order = teamOrder(pageable.getSort());
+
+        // 1단계 -> 컬렉션 조인이 없으므로 DB 에서 페이징
+        List<Tuple> teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(order)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        Map<Long, TeamMembersDto> contents = new LinkedHashMap<>();
+        for (Tuple tuple : teams) {
+            contents.put(tuple.get(team.id), new TeamMembersDto(tuple.get(team.id), tuple.get(team.name)));
+        }
+
+        // 2단계 -> 이번 페이지 팀의 회원만
+        if (!contents.isEmpty()) {
+            if (maxMembersPerTeam == null) {
+                addAllMembers(contents);
+            } else {
+                addFirstMembers(contents, maxMembersPerTeam);
+            }
+        }
+
+        return PageableExecutionUtils.getPage(new ArrayList<>(contents.values()), pageable, () -> queryFactory
+                .select(team.count())
+                .from(team)
+                .fetchOne());
+    }
+
+    // 같은 이름의 팀도 페이지 사이에서 순서가 바뀌지 않도록 id 를 마지막 정렬키로
+    private static OrderSpecifier<?>[] teamOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return new OrderSpecifier<?>[]{team.id.asc()};
+        }
+        Sort.Order first = sort.iterator().next();
+        ComparableExpressionBase<?> key = SORT_KEYS.get(first.getProperty());
+        if (key == null) {
+            throw new IllegalArgumentException("정렬할 수 없는 키 입니다. sort=" + first.getProperty()
+                    + " (가능: " + String.join(", ", SORT_KEYS.keySet()) + ")");
+        }
+        OrderSpecifier<?> specifier = first.isAscending() ? key.asc() : key.desc();
+        if (key == team.id) {
+            return new OrderSpecifier<?>[]{specifier};
+        }
+        return new OrderSpecifier<?>[]{specifier, first.isAscending() ? team.id.asc() : team.id.desc()};
+    }
+
+    private void addAllMembers(Map<Long, TeamMembersDto> contents) {
+        List<Tuple> members = queryFactory
+                .select(member.team.id, new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.team.id.in(contents.keySet()))
+                .orderBy(member.team.id.asc(), member.id.asc())
+                .fetch();
+        for (Tuple tuple : members) {
+            contents.get(tuple.get(member.team.id)).getMembers().add(tuple.get(1, MemberDto.class));
+        }
+    }
+
+    // 팀별 앞에서 max 명 -> 팀 크기와 무관하게 한번 읽고 번호만 매김 (상관 서브쿼리로 앞선 회원 수를 세면 팀마다 O(n^2))
+    private void addFirstMembers(Map<Long, TeamMembersDto> contents, int max) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(FIRST_MEMBERS_PER_TEAM_SQL)
+                .setParameter("teamIds", contents.keySet())
+                .setParameter("max", max)
+                .getResultList();
+        for (Object[] row : rows) {
+            contents.get(((Number) row[0]).longValue())
+                    .getMembers()
+                    .add(new MemberDto((String) row[1], ((Number) row[2]).intValue()));
+        }
+    }
+}
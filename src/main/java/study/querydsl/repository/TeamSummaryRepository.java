@@ -0,0 +1,347 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.TeamSummaryDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.EntityChangeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀별 회원 수, 나이 합계, 나이별 인원(히스토그램)을 메모리에 유지하는 요약 테이블
+ * - 회원 등록/수정(팀 변경 포함)/삭제 커밋 후 TeamSummaryEventListener 가 증분 반영
+ * - 벌크 update/delete 는 어떤 행이 바뀌었는지 모르므로 커밋 후 다음 조회때 DB 에서 다시 집계
+ * - 재집계는 잠금 밖에서 조회하고 교체할 때만 잠금 -> 커밋 후 반영(쓰기)이 재집계를 기다리지 않음
+ * - 변경마다 flush 순번을 받아둠, 재집계 조회가 끝날 때의 순번 이하로 flush 된 변경은 스냅샷에 들어갔는지 알 수 없음
+ *   -> 더하지 않고 그 팀만 다시 집계, 이후에 flush 된 변경은 그대로 반영 (재집계 중에 온 변경은 모아뒀다가 교체 후 반영)
+ * 조회는 groupBy 없이 팀 수 만큼만 계산
+ * */
+@Slf4j
+@Repository
+public class TeamSummaryRepository {
+
+    private static final int AGE_BUCKET = 10;
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate readOnlyTx;
+
+    // 아래 필드는 lock 으로 보호, 메모리 작업만 하므로 짧게 잡음
+    private final Map<Long, TeamStats> stats = new HashMap<>();
+    private final Map<Long, String> teamNames = new HashMap<>();
+    private final Set<Long> dirty = new HashSet<>();        // 증분이 스냅샷에 들어갔는지 모르는 팀 -> 그 팀만 다시 집계
+    private long fullBuiltAt;                               // 마지막 전체 재집계의 flush 순번 (스냅샷에 없던 팀 기준)
+    private Rebuild rebuilding;                             // 재집계 중이면 그 사이 도착한 변경을 모아둠
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 재집계는 한번에 하나, DB 조회 중에 잡음 -> 조회하는 쪽만 기다림
+    // synchronized 대신 ReentrantLock (가상 스레드가 캐리어에 고정되지 않음)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicLong flushSequence = new AtomicLong();
+
+    public TeamSummaryRepository(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager) {
+        this.queryFactory = queryFactory;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<TeamSummaryDto> findAll() {
+        reconcile();
+        return lockedGet(() -> {
+            List<TeamSummaryDto> result = new ArrayList<>(stats.size());
+            stats.forEach((teamId, teamStats) -> {
+                if (teamStats.count > 0) {
+                    result.add(teamStats.toDto(teamId, teamNames.get(teamId)));
+                }
+            });
+            return result;
+        });
+    }
+
+    public Optional<TeamSummaryDto> findByTeamName(String teamName) {
+        return findAll().stream()
+                .filter(summary -> teamName.equals(summary.getTeamName()))
+                .findFirst();
+    }
+
+    // ---- 증분 반영 ----
+
+    // 회원 insert/update/delete 가 flush 될 때 (커밋 전), 돌려준 순번을 커밋 후 memberAdded 등에 넘김
+    public long memberFlushed() {
+        return flushSequence.incrementAndGet();
+    }
+
+    public void memberAdded(long flushed, Long teamId, int age) {
+        locked(() -> delta(new MemberDelta(flushed, teamId, age, true)));
+    }
+
+    public void memberRemoved(long flushed, Long teamId, int age) {
+        locked(() -> delta(new MemberDelta(flushed, teamId, age, false)));
+    }
+
+    public void memberChanged(long flushed, Long oldTeamId, int oldAge, Long newTeamId, int newAge) {
+        locked(() -> {
+            delta(new MemberDelta(flushed, oldTeamId, oldAge, false));
+            delta(new MemberDelta(flushed, newTeamId, newAge, true));
+        });
+    }
+
+    public void teamSaved(Long teamId, String name) {
+        team(() -> teamNames.put(teamId, name));
+    }
+
+    public void teamRemoved(Long teamId) {
+        team(() -> {
+            teamNames.remove(teamId);
+            stats.remove(teamId);
+        });
+    }
+
+    // 팀 변경은 같은 값으로 다시 반영해도 결과가 같음 -> 전체 재집계 중이면 교체 후 한번 더 반영
+    private void team(Runnable change) {
+        locked(() -> {
+            change.run();
+            if (rebuilding != null && rebuilding.teamIds == null) {
+                rebuilding.teamChanges.add(change);
+            }
+        });
+    }
+
+    private void delta(MemberDelta delta) {
+        if (delta.teamId == null) {
+            return;
+        }
+        if (rebuilding != null && rebuilding.covers(delta.teamId)) {
+            rebuilding.memberDeltas.add(delta);
+            return;
+        }
+        apply(delta);
+    }
+
+    private void apply(MemberDelta delta) {
+        TeamStats teamStats = stats.get(delta.teamId);
+        long builtAt = teamStats != null ? teamStats.builtAt : fullBuiltAt;
+        if (delta.flushed <= builtAt) {
+            dirty.add(delta.teamId);    // 스냅샷에 이미 들어갔을 수 있음
+            return;
+        }
+        if (delta.added) {
+            stats.computeIfAbsent(delta.teamId, id -> new TeamStats(fullBuiltAt)).add(delta.age);
+        } else if (teamStats == null || !teamStats.remove(delta.age)) {
+            dirty.add(delta.teamId);    // 모르는 값이면 어긋난 것
+        }
+    }
+
+    public void markStale() {
+        stale.set(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reconcile();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void afterBulk(EntityChangeEvent event) {
+        if (event.isBulk() && (event.isAbout(Member.class) || event.isAbout(Team.class))) {
+            markStale();
+        }
+    }
+
+    // 전체가 어긋났으면 전체, 아니면 어긋난 팀만 다시 집계
+    private void reconcile() {
+        if (!stale.get() && lockedGet(dirty::isEmpty)) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            if (stale.compareAndSet(true, false)) {
+                rebuild(null);
+            }
+            Set<Long> teamIds = lockedGet(() -> Set.copyOf(dirty));
+            if (!teamIds.isEmpty()) {
+                rebuild(teamIds);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // teamIds 가 null 이면 전체
+    private void rebuild(Set<Long> teamIds) {
+        Rebuild rebuild = new Rebuild(teamIds);
+        locked(() -> {
+            rebuilding = rebuild;
+        });
+        Snapshot snapshot;
+        try {
+            snapshot = readOnlyTx.execute(status -> load(teamIds));
+        } catch (RuntimeException e) {
+            locked(() -> {
+                rebuilding = null;
+                rebuild.memberDeltas.forEach(this::apply);
+            });
+            stale.set(true);
+            throw e;
+        }
+        // 조회가 끝난 뒤의 순번, 이 이후에 flush 된 변경은 커밋도 조회 뒤라 스냅샷에 없음
+        long builtAt = flushSequence.get();
+
+        locked(() -> {
+            if (teamIds == null) {
+                teamNames.clear();
+                teamNames.putAll(snapshot.teamNames);
+                stats.clear();
+                dirty.clear();
+                fullBuiltAt = builtAt;
+            }
+            for (Long teamId : teamIds == null ? snapshot.stats.keySet() : teamIds) {
+                if (teamIds != null && !teamNames.containsKey(teamId)) {
+                    stats.remove(teamId);   // 조회하는 동안 삭제된 팀
+                    dirty.remove(teamId);
+                    continue;
+                }
+                TeamStats teamStats = snapshot.stats.getOrDefault(teamId, new TeamStats(builtAt));
+                teamStats.builtAt = builtAt;
+                stats.put(teamId, teamStats);
+                dirty.remove(teamId);
+            }
+            rebuilding = null;
+            rebuild.teamChanges.forEach(Runnable::run);
+            rebuild.memberDeltas.forEach(this::apply);
+        });
+        log.info("team summary 재집계 teams={} scope={} replayed={}", snapshot.stats.size(),
+                teamIds == null ? "all" : teamIds.size(), rebuild.memberDeltas.size());
+    }
+
+    private Snapshot load(Set<Long> teamIds) {
+        Map<Long, String> names = new HashMap<>();
+        if (teamIds == null) {
+            for (Tuple tuple : queryFactory.select(team.id, team.name).from(team).fetch()) {
+                names.put(tuple.get(team.id), tuple.get(team.name));
+            }
+        }
+        List<Tuple> ages = queryFactory
+                .select(member.team.id, member.age, member.count())
+                .from(member)
+                .where(teamIds == null ? member.team.isNotNull() : member.team.id.in(teamIds))
+                .groupBy(member.team.id, member.age)
+                .fetch();
+
+        Map<Long, TeamStats> loaded = new HashMap<>();
+        for (Tuple tuple : ages) {
+            loaded.computeIfAbsent(tuple.get(member.team.id), id -> new TeamStats(0))
+                    .add(tuple.get(member.age), tuple.get(member.count()));
+        }
+        return new Snapshot(names, loaded);
+    }
+
+    private void locked(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T lockedGet(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record MemberDelta(long flushed, Long teamId, int age, boolean added) {
+    }
+
+    private record Snapshot(Map<Long, String> teamNames, Map<Long, TeamStats> stats) {
+    }
+
+    private static class Rebuild {
+
+        private final Set<Long> teamIds;
+        private final List<MemberDelta> memberDeltas = new ArrayList<>();
+        private final List<Runnable> teamChanges = new ArrayList<>();
+
+        private Rebuild(Set<Long> teamIds) {
+            this.teamIds = teamIds;
+        }
+
+        private boolean covers(Long teamId) {
+            return teamIds == null || teamIds.contains(teamId);
+        }
+    }
+
+    private static class TeamStats {
+
+        private long builtAt;       // 이 팀을 마지막으로 집계한 flush 순번
+        private long count;
+        private long sumAge;
+        private final TreeMap<Integer, Long> ageCounts = new TreeMap<>();   // min/max 를 삭제 후에도 정확히 유지
+
+        private TeamStats(long builtAt) {
+            this.builtAt = builtAt;
+        }
+
+        private void add(int age) {
+            add(age, 1);
+        }
+
+        private void add(int age, long n) {
+            count += n;
+            sumAge += age * n;
+            ageCounts.merge(age, n, Long::sum);
+        }
+
+        private boolean remove(int age) {
+            Long n = ageCounts.get(age);
+            if (n == null) {
+                return false;
+            }
+            if (n == 1) {
+                ageCounts.remove(age);
+            } else {
+                ageCounts.put(age, n - 1);
+            }
+            count--;
+            sumAge -= age;
+            return true;
+        }
+
+        private TeamSummaryDto toDto(Long teamId, String teamName) {
+            Map<Integer, Long> buckets = new TreeMap<>();
+            ageCounts.forEach((age, n) -> buckets.merge(Math.floorDiv(age, AGE_BUCKET) * AGE_BUCKET, n, Long::sum));
+            return new TeamSummaryDto(teamId, teamName, count, (double) sumAge / count,
+                    ageCounts.firstKey(), ageCounts.lastKey(), buckets);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package study.querydsl.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.EntityChangeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Member/Team 데이터 버전 -> 이 프로세스에서 일어난 엔티티 변경, 벌크 update/delete(EntityChangeEvent) 마다 증가
+ * 검색 API 의 ETag 는 (정규화된 검색조건, 페이지, 버전) 으로 만들어서 조건별로 다른 값이 나옴
+ * 버전은 프로세스마다 0 부터 시작 -> 프로세스별 epoch 를 같이 넣어서 재시작 전의 ETag 와 겹치지 않게 함
+ *
+ * 버전은 프로세스 안의 변경만 알기 때문에 인스턴스 하나, primary 에서 읽는 배포에서만 맞음
+ * - 다른 인스턴스, 애플리케이션 밖의 SQL 로 바뀐 데이터는 모름 -> 이 인스턴스는 계속 304 를 줄 수 있음
+ * - replica 는 커밋 후 버전보다 늦은 데이터를 읽을 수 있음 -> 그 ETag 로 오래된 데이터에 304
+ * 그래서 app.etag.enabled=false 이거나 replica 라우팅이 켜져 있으면 ETag 를 쓰지 않음 (인스턴스가 여러개면 꺼야 함)
+ * */
+@Component
+public class DataVersion {
+
+    private final boolean enabled;
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicLong version = new AtomicLong();
+
+    public DataVersion(@Value("${app.etag.enabled:true}") boolean enabled,
+                       @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        this.enabled = enabled && !replicaEnabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * 조회 쿼리를 실행하기 전에 만들어야 함
+     * -> 조회 도중 커밋된 변경은 버전을 올리므로 다음 요청에서 ETag 가 달라짐
+     * */
+    public String etag(Object... scope) {
+        StringBuilder sb = new StringBuilder().append(epoch).append(':').append(version.get());
+        for (Object s : scope) {
+            sb.append('|').append(s);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // flush 시점에 한번
+    @EventListener
+    public void onChange(EntityChangeEvent event) {
+        if (event.isAbout(Member.class) || event.isAbout(Team.class)) {
+            version.incrementAndGet();
+        }
+    }
+
+    // 커밋 전에 다른 요청이 이전 데이터로 ETag 를 받아갔을 수 있으므로 커밋 후 한번 더
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterCompletion(EntityChangeEvent event) {
+        onChange(event);
+    }
+}
@@ -0,0 +1,52 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import study.querydsl.event.EntityChangeEvent;
+
+/**
+ * 벌크 연산은 영속성 컨텍스트를 거치지 않아서 JPA 콜백이 호출되지 않음
+ * -> update(), delete() 실행 후 직접 EntityChangeEvent 를 발행
+ * */
+public class EventPublishingJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager em;
+    private final ApplicationEventPublisher publisher;
+
+    public EventPublishingJPAQueryFactory(EntityManager em, ApplicationEventPublisher publisher) {
+        super(em);
+        this.em = em;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public JPAUpdateClause update(EntityPath<?> path) {
+        return new JPAUpdateClause(em, path) {
+            @Override
+            public long execute() {
+                return published(path, super.execute());
+            }
+        };
+    }
+
+    @Override
+    public JPADeleteClause delete(EntityPath<?> path) {
+        return new JPADeleteClause(em, path) {
+            @Override
+            public long execute() {
+                return published(path, super.execute());
+            }
+        };
+    }
+
+    private long published(EntityPath<?> path, long affected) {
+        if (affected > 0) {
+            publisher.publishEvent(EntityChangeEvent.bulk(path.getType()));
+        }
+        return affected;
+    }
+}
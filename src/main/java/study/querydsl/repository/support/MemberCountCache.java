@@ -0,0 +1,76 @@
+package study.querydsl.repository.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.EntityChangeEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * searchPageComplex 의 count 쿼리 결과 캐시
+ * 키는 정규화된 검색조건, Member/Team 이 변경되면 전체 무효화
+ * */
+@Component
+public class MemberCountCache {
+
+    private final Cache<MemberSearchCondition, Long> cache;
+
+    // 무효화 세대 -> count 조회중에 무효화가 일어나면 조회 결과를 캐시에 넣지 않음
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberCountCache(@Value("${app.count-cache.max-size:10000}") long maxSize,
+                            @Value("${app.count-cache.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long get(MemberSearchCondition condition, LongSupplier countQuery) {
+        MemberSearchCondition key = condition.normalized();
+        Long cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long gen = generation.get();
+        long total = countQuery.getAsLong();
+        if (generation.get() == gen) {
+            cache.put(key, total);
+        }
+        return total;
+    }
+
+    public Long getIfPresent(MemberSearchCondition condition) {
+        return cache.getIfPresent(condition.normalized());
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // flush 시점에 바로 무효화
+    @EventListener
+    public void onChange(EntityChangeEvent event) {
+        if (event.isAbout(Member.class) || event.isAbout(Team.class)) {
+            invalidateAll();
+        }
+    }
+
+    // 커밋 전에 다른 트랜잭션이 이전 값으로 다시 채웠을 수 있으므로 커밋 후 한번 더 무효화
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterCompletion(EntityChangeEvent event) {
+        onChange(event);
+    }
+}
@@ -0,0 +1,121 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.List;
+import java.util.Locale;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 검색 결과 건수 추정
+ * - 조건 없음: DB 통계(information_schema.tables) 의 행 수
+ * - 조건 있음: id 구간 몇 개를 표본으로 조건에 맞는 비율을 구해서 전체 행 수에 곱함
+ * 정확한 count 가 전체를 읽어야 하는 큰 테이블에서 페이지 번호 표시용 정도로만 사용
+ * 작은 테이블이거나 표본이 비면 정확한 count -> Estimate.exact 로 구분
+ * */
+@Component
+public class MemberCountEstimator {
+
+    private static final int WINDOWS = 4;   // 입력 순서에 따른 치우침을 줄이려고 표본 구간을 나눠서 뽑음
+
+    private final JPAQueryFactory queryFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final int sampleSize;
+
+    public MemberCountEstimator(JPAQueryFactory queryFactory,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${app.page.estimate.sample-size:10000}") int sampleSize) {
+        this.queryFactory = queryFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sampleSize = sampleSize;
+    }
+
+    public record Estimate(long count, boolean exact) {
+    }
+
+    public Estimate estimate(MemberSearchCondition condition) {
+        long tableRows = tableRows();
+        if (tableRows <= sampleSize) {
+            return exact(condition);     // 통계가 없거나 작은 테이블은 정확히
+        }
+        if (MemberSearchShape.of(condition) == 0) {
+            return new Estimate(tableRows, false);
+        }
+
+        Tuple range = queryFactory
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .fetchOne();
+        Long minId = range.get(member.id.min());
+        Long maxId = range.get(member.id.max());
+        if (minId == null) {
+            return new Estimate(0, true);
+        }
+
+        BooleanExpression sample = sampleWindows(minId, maxId, tableRows);
+        long sampled = queryFactory
+                .select(member.count())
+                .from(member)
+                .where(sample)
+                .fetchOne();
+        if (sampled == 0) {
+            return exact(condition);
+        }
+        long matched = countQuery(condition, sample).fetchOne();
+        return new Estimate(Math.round((double) matched * tableRows / sampled), false);
+    }
+
+    private Estimate exact(MemberSearchCondition condition) {
+        return new Estimate(countQuery(condition, null).fetchOne(), true);
+    }
+
+    // id 전체 범위를 WINDOWS 등분하고 각 구간 앞쪽에서 sampleSize / WINDOWS 건 정도 되는 폭을 취함
+    private BooleanExpression sampleWindows(long minId, long maxId, long tableRows) {
+        long span = maxId - minId + 1;
+        long width = Math.max(1, span * sampleSize / tableRows / WINDOWS);
+        long stride = span / WINDOWS;
+
+        BooleanExpression sample = null;
+        for (int i = 0; i < WINDOWS; i++) {
+            long from = minId + stride * i;
+            BooleanExpression window = member.id.between(from, from + width - 1);
+            sample = sample == null ? window : sample.or(window);
+        }
+        return sample;
+    }
+
+    private JPAQuery<Long> countQuery(MemberSearchCondition condition, BooleanExpression sample) {
+        JPAQuery<Long> query = queryFactory
+                .select(member.count())
+                .from(member);
+        if (StringUtils.hasText(condition.getTeamName())) {
+            query.leftJoin(member.team, team);
+        }
+        return query.where(MemberSearchPredicates.of(condition), sample);
+    }
+
+    // H2: ROW_COUNT_ESTIMATE, MariaDB: TABLE_ROWS (InnoDB 는 근사치)
+    private long tableRows() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        List<Long> rows;
+        if (product != null && product.toLowerCase(Locale.ROOT).contains("h2")) {
+            rows = jdbcTemplate.queryForList(
+                    "select row_count_estimate from information_schema.tables where upper(table_name) = 'MEMBER'", Long.class);
+        } else {
+            rows = jdbcTemplate.queryForList(
+                    "select table_rows from information_schema.tables where table_schema = database() and table_name = 'member'", Long.class);
+        }
+        return rows.isEmpty() || rows.get(0) == null ? -1 : rows.get(0);
+    }
+}
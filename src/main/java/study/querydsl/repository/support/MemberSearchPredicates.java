@@ -0,0 +1,113 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * MemberSearchCondition -> where 조건 (member, team 별칭 기준)
+ * 값이 없는 조건은 null -> where 에서 무시됨
+ * 검색조건 모양별로 미리 만들어 두는 조건(Param, 네이티브 SQL)도 여기서 같은 순서로 만듦
+ * */
+public final class MemberSearchPredicates {
+
+    // 조건 하나 = 모양 비트, 조건값, Param 조건, SQL 조건 (member m, team t 별칭)
+    private enum Field {
+        USERNAME(MemberSearchShape.USERNAME, MemberSearchCondition::getUsername,
+                member.username.eq(new Param<>(String.class, "username")), "m.username = ?"),
+        TEAM_NAME(MemberSearchShape.TEAM_NAME, MemberSearchCondition::getTeamName,
+                team.name.eq(new Param<>(String.class, "teamName")), "t.name = ?"),
+        AGE_GOE(MemberSearchShape.AGE_GOE, MemberSearchCondition::getAgeGoe,
+                member.age.goe(new Param<>(Integer.class, "ageGoe")), "m.age >= ?"),
+        AGE_LOE(MemberSearchShape.AGE_LOE, MemberSearchCondition::getAgeLoe,
+                member.age.loe(new Param<>(Integer.class, "ageLoe")), "m.age <= ?");
+
+        private final int bit;
+        private final Function<MemberSearchCondition, Object> value;
+        private final Predicate param;
+        private final String sql;
+
+        Field(int bit, Function<MemberSearchCondition, Object> value, Predicate param, String sql) {
+            this.bit = bit;
+            this.value = value;
+            this.param = param;
+            this.sql = sql;
+        }
+    }
+
+    private static final Predicate[][] PARAMS = new Predicate[MemberSearchShape.COUNT][];
+    private static final List<List<Function<MemberSearchCondition, Object>>> VALUES = new ArrayList<>(MemberSearchShape.COUNT);
+    private static final String[] SQL = new String[MemberSearchShape.COUNT];
+
+    static {
+        for (int shape = 0; shape < MemberSearchShape.COUNT; shape++) {
+            List<Predicate> params = new ArrayList<>();
+            List<Function<MemberSearchCondition, Object>> values = new ArrayList<>();
+            List<String> sql = new ArrayList<>();
+            for (Field field : Field.values()) {
+                if (MemberSearchShape.has(shape, field.bit)) {
+                    params.add(field.param);
+                    values.add(field.value);
+                    sql.add(field.sql);
+                }
+            }
+            PARAMS[shape] = params.toArray(new Predicate[0]);
+            VALUES.add(List.copyOf(values));
+            SQL[shape] = String.join(" and ", sql);
+        }
+    }
+
+    private MemberSearchPredicates() {
+    }
+
+    // 모든 조건의 AND, 조건이 하나도 없으면 null (모든 행)
+    public static Predicate of(MemberSearchCondition condition) {
+        return ExpressionUtils.allOf(
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()));
+    }
+
+    // 모양에 들어있는 조건을 Param 으로, JPQL 로 직렬화하면 ?1, ?2 ... 가 values(shape) 순서와 같음
+    public static Predicate[] params(int shape) {
+        return PARAMS[shape].clone();
+    }
+
+    // 모양에 들어있는 조건의 값을 꺼내는 함수, params / sql 의 파라미터 순서
+    public static List<Function<MemberSearchCondition, Object>> values(int shape) {
+        return VALUES.get(shape);
+    }
+
+    // 네이티브 SQL where 절 (member m, team t 별칭), 조건이 없으면 빈 문자열
+    public static String sql(int shape) {
+        return SQL[shape];
+    }
+
+    public static BooleanExpression usernameEq(String username) {
+        return StringUtils.hasText(username) ? member.username.eq(username) : null;
+    }
+
+    // team 조인이 있어야 함
+    public static BooleanExpression teamNameEq(String teamName) {
+        return StringUtils.hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    public static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    public static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
@@ -0,0 +1,134 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * MemberSearchCondition 동적 쿼리를 검색조건 모양(MemberSearchShape)별로 한번만 JPQL 로 만들어 두고
+ * 호출시에는 파라미터 값만 바인딩
+ * -> 매번 하던 Querydsl 표현식 생성, JPQL 직렬화가 빠지고 JPQL 문자열이 같으니 하이버네이트 쿼리 플랜 캐시도 항상 적중
+ * */
+@Component
+public class MemberSearchQueryCache {
+
+    private static final Pattern POSITIONAL_PARAMETER = Pattern.compile("\\?\\d+");
+
+    private static final QMemberTeamDto PROJECTION = new QMemberTeamDto(
+            member.id.as("memberId"),
+            member.username,
+            member.age,
+            team.id.as("teamId"),
+            team.name.as("teamName")
+    );
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    private final ConcurrentMap<Integer, CompiledQuery> contentQueries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, CompiledQuery> countQueries = new ConcurrentHashMap<>();
+
+    public MemberSearchQueryCache(EntityManager em, JPAQueryFactory queryFactory) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+    }
+
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition) {
+        return fetch(condition, 0, -1);
+    }
+
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition, long offset, int limit) {
+        return fetch(condition, null, offset, limit);
+    }
+
+    // sort 가 null 이면 정렬 없음, 캐시 키는 (검색조건 모양, 정렬)
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition, MemberSort sort, long offset, int limit) {
+        int shape = MemberSearchShape.of(condition);
+        int key = shape * (MemberSort.values().length + 1) + (sort == null ? 0 : sort.ordinal() + 1);
+        CompiledQuery compiled = contentQueries.computeIfAbsent(key, k -> compileContents(shape, sort));
+
+        Query query = compiled.bind(em, condition);
+        if (offset > 0) {
+            query.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit >= 0) {
+            query.setMaxResults(limit);
+        }
+
+        List<?> rows = query.getResultList();
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(PROJECTION.newInstance((Object[]) row));
+        }
+        return result;
+    }
+
+    public long count(MemberSearchCondition condition) {
+        int shape = MemberSearchShape.of(condition);
+        CompiledQuery compiled = countQueries.computeIfAbsent(shape, this::compileCount);
+        return (Long) compiled.bind(em, condition).getSingleResult();
+    }
+
+    // 팀 이름 조건이 있으면 팀 없는 회원은 어차피 걸러짐 -> inner join 으로 team 부터 읽고 idx_member_team_id 를 탈 수 있게 함
+    private CompiledQuery compileContents(int shape, MemberSort sort) {
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(PROJECTION)
+                .from(member);
+        if (MemberSearchShape.has(shape, MemberSearchShape.TEAM_NAME)) {
+            query.join(member.team, team);
+        } else {
+            query.leftJoin(member.team, team);
+        }
+        query.where(MemberSearchPredicates.params(shape));
+        if (sort != null) {
+            query.orderBy(sort.orderSpecifiers());
+        }
+        return new CompiledQuery(query.toString(), MemberSearchPredicates.values(shape));
+    }
+
+    // member -> team 은 다대일이라 행 수가 변하지 않음 -> 팀 이름 조건이 없으면 조인을 뺌
+    private CompiledQuery compileCount(int shape) {
+        JPAQuery<Long> query = queryFactory
+                .select(member.count())
+                .from(member);
+        if (MemberSearchShape.has(shape, MemberSearchShape.TEAM_NAME)) {
+            query.join(member.team, team);
+        }
+        String jpql = query
+                .where(MemberSearchPredicates.params(shape))
+                .toString();
+        return new CompiledQuery(jpql, MemberSearchPredicates.values(shape));
+    }
+
+    private record CompiledQuery(String jpql, List<Function<MemberSearchCondition, Object>> binders) {
+
+        CompiledQuery {
+            Assert.state(POSITIONAL_PARAMETER.matcher(jpql).results().count() == binders.size(),
+                    () -> "파라미터 개수 불일치 jpql=" + jpql);
+        }
+
+        Query bind(EntityManager em, MemberSearchCondition condition) {
+            Query query = em.createQuery(jpql);
+            for (int i = 0; i < binders.size(); i++) {
+                query.setParameter(i + 1, binders.get(i).apply(condition));
+            }
+            return query;
+        }
+    }
+}
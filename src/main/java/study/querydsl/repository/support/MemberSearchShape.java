@@ -0,0 +1,60 @@
+package study.querydsl.repository.support;
+
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 검색조건의 모양(어떤 조건이 들어왔는지)을 비트로 표현
+ * 조건 4개의 조합이라 모양은 16개뿐
+ * */
+public final class MemberSearchShape {
+
+    public static final int USERNAME = 1;
+    public static final int TEAM_NAME = 1 << 1;
+    public static final int AGE_GOE = 1 << 2;
+    public static final int AGE_LOE = 1 << 3;
+
+    public static final int COUNT = 1 << 4;
+
+    // 검색조건 여러개를 한번에 실행 (searchBatch), 메트릭 태그 전용 -> 모양 배열 크기는 TAGS
+    public static final int BATCH = COUNT;
+    public static final int TAGS = COUNT + 1;
+
+    private static final String[] NAMES = new String[TAGS];
+
+    static {
+        NAMES[BATCH] = "batch";
+        for (int shape = 0; shape < COUNT; shape++) {
+            List<String> fields = new ArrayList<>();
+            if (has(shape, USERNAME)) fields.add("username");
+            if (has(shape, TEAM_NAME)) fields.add("teamName");
+            if (has(shape, AGE_GOE)) fields.add("ageGoe");
+            if (has(shape, AGE_LOE)) fields.add("ageLoe");
+            NAMES[shape] = fields.isEmpty() ? "none" : String.join("+", fields);
+        }
+    }
+
+    private MemberSearchShape() {
+    }
+
+    public static int of(MemberSearchCondition condition) {
+        int shape = 0;
+        if (StringUtils.hasText(condition.getUsername())) shape |= USERNAME;
+        if (StringUtils.hasText(condition.getTeamName())) shape |= TEAM_NAME;
+        if (condition.getAgeGoe() != null) shape |= AGE_GOE;
+        if (condition.getAgeLoe() != null) shape |= AGE_LOE;
+        return shape;
+    }
+
+    public static boolean has(int shape, int field) {
+        return (shape & field) != 0;
+    }
+
+    // 메트릭 태그 등에 쓰는 이름 ex) username+ageGoe, none, batch
+    public static String name(int shape) {
+        return NAMES[shape];
+    }
+}
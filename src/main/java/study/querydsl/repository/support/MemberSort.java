@@ -0,0 +1,31 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.OrderSpecifier;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 회원 검색에서 허용하는 정렬 -> 모두 인덱스(PK, idx_member_username, idx_member_age) 순서로 읽을 수 있는 것만
+ * 같은 값이 여러 행이어도 순서가 고정되도록 member.id 를 항상 마지막 정렬키로 붙임 (방향도 같게 -> 인덱스 역방향 스캔 가능)
+ * */
+public enum MemberSort {
+
+    ID_ASC(member.id.asc()),
+    ID_DESC(member.id.desc()),
+    USERNAME_ASC(member.username.asc(), member.id.asc()),
+    USERNAME_DESC(member.username.desc(), member.id.desc()),
+    AGE_ASC(member.age.asc(), member.id.asc()),
+    AGE_DESC(member.age.desc(), member.id.desc());
+
+    public static final MemberSort DEFAULT = ID_ASC;
+
+    private final OrderSpecifier<?>[] orderSpecifiers;
+
+    MemberSort(OrderSpecifier<?>... orderSpecifiers) {
+        this.orderSpecifiers = orderSpecifiers;
+    }
+
+    public OrderSpecifier<?>[] orderSpecifiers() {
+        return orderSpecifiers.clone();
+    }
+}
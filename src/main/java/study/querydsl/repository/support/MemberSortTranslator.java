@@ -0,0 +1,46 @@
+package study.querydsl.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pageable 의 Sort -> MemberSort
+ * - 허용한 키(memberId, username, age)만, 그 외는 IllegalArgumentException (400)
+ * - 인덱스 하나로 정렬할 수 있도록 첫번째 키만 사용, 나머지 키와 ignoreCase 는 버림(downgrade)
+ * - 정렬이 없으면 member.id 오름차순
+ * */
+@Slf4j
+public final class MemberSortTranslator {
+
+    private static final Map<String, MemberSort[]> SORT_KEYS = Map.of(   // {asc, desc}
+            "id", new MemberSort[]{MemberSort.ID_ASC, MemberSort.ID_DESC},
+            "memberId", new MemberSort[]{MemberSort.ID_ASC, MemberSort.ID_DESC},
+            "username", new MemberSort[]{MemberSort.USERNAME_ASC, MemberSort.USERNAME_DESC},
+            "age", new MemberSort[]{MemberSort.AGE_ASC, MemberSort.AGE_DESC}
+    );
+
+    private MemberSortTranslator() {
+    }
+
+    public static MemberSort translate(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return MemberSort.DEFAULT;
+        }
+
+        Iterator<Sort.Order> orders = sort.iterator();
+        Sort.Order first = orders.next();
+        MemberSort[] candidates = SORT_KEYS.get(first.getProperty());
+        if (candidates == null) {
+            // teamName 등은 조인 결과 전체를 정렬해야 해서 허용하지 않음
+            throw new IllegalArgumentException("정렬할 수 없는 키 입니다. sort=" + first.getProperty()
+                    + " (가능: " + String.join(", ", SORT_KEYS.keySet()) + ")");
+        }
+        if (orders.hasNext() || first.isIgnoreCase()) {
+            log.debug("정렬 단순화 {} -> {} {}", sort, first.getProperty(), first.getDirection());
+        }
+        return first.isAscending() ? candidates[0] : candidates[1];
+    }
+}
@@ -0,0 +1,103 @@
+package study.querydsl.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.querydsl.monitor.SqlStatementCounter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 쿼리를 별도 스레드에서 동시에 실행
+ * 스레드마다 트랜잭션을 새로 열기 때문에 쿼리별로 EntityManager, 커넥션이 따로 잡힘
+ * JDK 21 이상이면 가상 스레드, 아니면 플랫폼 스레드 사용
+ * 취소(cancel(true))는 작업 스레드를 인터럽트 -> 커넥션 대기를 멈추고, 실행중인 쿼리는 트랜잭션 타임아웃(쿼리 타임아웃)으로 끝남
+ * 작업 하나가 커넥션 하나를 잡으므로 동시 작업 수는 커넥션 풀보다 작아야 함 (지정하지 않으면 풀의 절반)
+ * 제출하는 쪽은 트랜잭션 밖에서 호출해야 함 -> 커넥션을 잡은 채로 제한에 걸려 기다리면 풀이 바닥남
+ * */
+@Component
+public class ParallelQueryExecutor {
+
+    private final boolean enabled;
+    private final Duration timeout;
+    private final SimpleAsyncTaskExecutor executor;
+    private final TransactionTemplate readOnlyTx;
+    private final SqlStatementCounter statementCounter;
+
+    public ParallelQueryExecutor(PlatformTransactionManager transactionManager,
+                                 SqlStatementCounter statementCounter,
+                                 @Value("${app.page.parallel.enabled:false}") boolean enabled,
+                                 @Value("${app.page.parallel.timeout:3s}") Duration timeout,
+                                 @Value("${app.page.parallel.concurrency-limit:0}") int concurrencyLimit,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.statementCounter = statementCounter;
+
+        this.executor = new SimpleAsyncTaskExecutor("query-");
+        this.executor.setVirtualThreads(Runtime.version().feature() >= 21);
+        this.executor.setConcurrencyLimit(concurrencyLimit(concurrencyLimit, maxPoolSize));
+
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTx.setTimeout((int) Math.max(1, timeout.toSeconds()));    // DB 쿼리 타임아웃에도 반영
+    }
+
+    // 0 이면 풀의 절반, 지정했으면 다른 요청이 쓸 커넥션이 남도록 풀 크기보다 작아야 함
+    static int concurrencyLimit(int configured, int maxPoolSize) {
+        if (configured <= 0) {
+            return Math.max(1, maxPoolSize / 2);
+        }
+        Assert.isTrue(configured < maxPoolSize, "app.page.parallel.concurrency-limit(" + configured
+                + ") 는 커넥션 풀 크기(" + maxPoolSize + ") 보다 작아야 합니다.");
+        return configured;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 여러 Future 를 같은 마감 시각까지 기다릴 때 (System.nanoTime 기준)
+    public long deadline() {
+        return System.nanoTime() + timeout.toNanos();
+    }
+
+    // CompletableFuture.cancel 은 실행중인 작업을 인터럽트하지 않으므로 FutureTask 기반 Future 를 돌려줌
+    // 작업 스레드의 SQL 은 제출한 요청 스레드의 카운터로 셈 (QueryMetrics 의 statements)
+    public <T> Future<T> submit(Supplier<T> query) {
+        return executor.submit(statementCounter.propagate(() -> readOnlyTx.execute(status -> query.get())));
+    }
+
+    public <T> T await(Future<T> future) {
+        return await(future, deadline());
+    }
+
+    public <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new QueryTimeoutException("쿼리 시간 초과 timeout=" + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("쿼리 대기중 인터럽트", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
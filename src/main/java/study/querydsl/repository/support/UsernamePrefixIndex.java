@@ -0,0 +1,239 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.EntityChangeEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * username 자동완성용 메모리 인덱스 (username, memberId 순으로 정렬된 skip list)
+ * 접두사로 시작 위치를 찾고 접두사가 끝날 때까지만 순회 -> DB 의 LIKE 'x%' 조회 없음
+ * - 시작할 때 전체 적재, 이후 Member/Team 변경은 커밋 후 반영
+ * - 벌크 update/delete 는 대상을 모르므로 다음 조회때 다시 적재
+ * 조회는 잠금 없이, 변경만 잠금
+ * 재적재는 잠금 밖에서 새 인덱스를 만들고, 그동안 커밋된 변경을 새 인덱스에도 반영한 뒤 교체
+ * */
+@Slf4j
+@Component
+public class UsernamePrefixIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::username)
+            .thenComparingLong(Entry::memberId);
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate readOnlyTx;
+
+    private volatile Index index = new Index();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final ReentrantLock lock = new ReentrantLock();          // index 변경, pending
+    private final ReentrantLock reloadLock = new ReentrantLock();    // 재적재는 한번에 하나만
+    private List<EntityChangeEvent> pending;                         // 재적재 중에 커밋된 변경, null 이면 재적재 중 아님
+
+    public UsernamePrefixIndex(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager) {
+        this.queryFactory = queryFactory;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * prefix 로 시작하는 username 을 사전순으로 최대 limit 개
+     * teamName 이 있으면 해당 팀 회원만
+     * */
+    public List<MemberTeamDto> search(String prefix, String teamName, int limit) {
+        reloadIfStale();
+
+        Index snapshot = index;
+        List<MemberTeamDto> result = new ArrayList<>(Math.min(limit, 16));
+        for (Entry entry : snapshot.entries.tailSet(new Entry(prefix, Long.MIN_VALUE, 0, null), true)) {
+            if (result.size() >= limit || !entry.username().startsWith(prefix)) {
+                break;
+            }
+            String entryTeamName = entry.teamId() == null ? null : snapshot.teamNames.get(entry.teamId());
+            if (teamName == null || teamName.equals(entryTeamName)) {
+                result.add(new MemberTeamDto(entry.memberId(), entry.username(), entry.age(), entry.teamId(), entryTeamName));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return index.byId.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reloadIfStale();
+    }
+
+    // 롤백된 변경이 들어가지 않도록 커밋 후 반영, 트랜잭션 밖에서 발행된 이벤트는 바로 반영
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(EntityChangeEvent event) {
+        lock.lock();
+        try {
+            apply(index, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(Index target, EntityChangeEvent event) {
+        if (event.isBulk()) {
+            if (event.isAbout(Member.class) || event.isAbout(Team.class)) {
+                stale.set(true);
+            }
+            return;
+        }
+
+        if (event.getEntity() instanceof Member m) {
+            if (event.getType() == EntityChangeEvent.Type.REMOVE) {
+                target.remove(m.getId());
+            } else {
+                target.upsert(m);
+            }
+        } else if (event.getEntity() instanceof Team t) {
+            if (event.getType() == EntityChangeEvent.Type.REMOVE) {
+                target.teamNames.remove(t.getId());
+            } else {
+                target.teamNames.put(t.getId(), t.getName());
+            }
+        }
+    }
+
+    // DB 에 커밋된 상태로 다시 적재 (테스트에서 직접 반영한 항목 정리용)
+    void reset() {
+        stale.set(true);
+        reloadIfStale();
+    }
+
+    // 적재 쿼리가 끝나고 교체하기 전 (테스트에서 재적재 중 커밋을 끼워넣는 용도)
+    void afterLoad() {
+    }
+
+    private void reloadIfStale() {
+        if (!stale.get()) {
+            return;
+        }
+        // 적재중에도 조회, 변경 반영은 막지 않음 -> 재적재끼리만 직렬화 (synchronized 면 가상 스레드 pinning)
+        reloadLock.lock();
+        try {
+            if (stale.compareAndSet(true, false)) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // 적재 시작 전부터 커밋된 변경을 모아뒀다가 새 인덱스에 다시 반영 -> 쿼리 결과에 이미 들어간 변경이어도 같은 결과
+    private void reload() {
+        locked(() -> pending = new ArrayList<>());
+        Index built;
+        try {
+            built = readOnlyTx.execute(status -> load());
+            afterLoad();
+        } catch (RuntimeException e) {
+            stale.set(true);
+            locked(() -> pending = null);
+            throw e;
+        }
+
+        locked(() -> {
+            pending.forEach(event -> apply(built, event));
+            pending = null;
+            index = built;
+        });
+        log.info("username prefix index 적재 members={}", built.byId.size());
+    }
+
+    private Index load() {
+        Index built = new Index();
+        for (Tuple tuple : queryFactory.select(team.id, team.name).from(team).fetch()) {
+            built.teamNames.put(tuple.get(team.id), tuple.get(team.name));
+        }
+
+        List<Tuple> rows = queryFactory
+                .select(member.id, member.username, member.age, member.team.id)
+                .from(member)
+                .where(member.username.isNotNull())
+                .fetch();
+        for (Tuple row : rows) {
+            built.add(new Entry(row.get(member.username), row.get(member.id), row.get(member.age), row.get(member.team.id)));
+        }
+        return built;
+    }
+
+    private void locked(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 조회는 volatile 참조 하나로 한 시점의 인덱스 전체를 봄
+    private static class Index {
+
+        private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+        private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+        private final Map<Long, String> teamNames = new ConcurrentHashMap<>();
+
+        private void upsert(Member m) {
+            Team memberTeam = m.getTeam();
+            Long teamId = memberTeam == null ? null : memberTeam.getId();  // 프록시여도 id 는 초기화하지 않음
+            if (memberTeam != null && Hibernate.isInitialized(memberTeam)) {
+                teamNames.putIfAbsent(teamId, memberTeam.getName());
+            }
+
+            remove(m.getId());
+            if (m.getUsername() != null) {
+                add(new Entry(m.getUsername(), m.getId(), m.getAge(), teamId));
+            }
+        }
+
+        private void add(Entry entry) {
+            entries.add(entry);
+            byId.put(entry.memberId(), entry);
+        }
+
+        private void remove(Long memberId) {
+            Entry old = byId.remove(memberId);
+            if (old != null) {
+                entries.remove(old);
+            }
+        }
+    }
+
+    private record Entry(String username, long memberId, int age, Long teamId) {
+    }
+}
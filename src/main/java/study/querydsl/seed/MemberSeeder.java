@@ -0,0 +1,115 @@
+package study.querydsl.seed;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.EntityChangeEvent;
+import study.querydsl.event.EntityChangeSuppression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 테스트 데이터 적재
+ * - chunkSize 건마다 커밋 (트랜잭션 하나에 전부 넣지 않음)
+ * - JDBC 배치 크기마다 flush/clear -> insert 가 배치로 나가고 영속성 컨텍스트가 커지지 않음
+ * - id 는 pooled 시퀀스(allocationSize)로 채번해서 시퀀스 조회가 allocationSize 건당 한번
+ * - 행마다 변경 이벤트를 내지 않고(EntityChangeSuppression, 2차 캐시 put 도 안함) chunk 마다 벌크 이벤트 한번
+ * */
+@Slf4j
+@Component
+public class MemberSeeder {
+
+    private final EntityManager em;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate chunkTx;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public MemberSeeder(EntityManager em,
+                        ApplicationEventPublisher publisher,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.seed.chunk-size:10000}") int chunkSize,
+                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:1000}") int batchSize) {
+        this.em = em;
+        this.publisher = publisher;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    // teamA, teamB ... teamZ, team26 ...
+    public static String teamName(int index) {
+        return index < 26 ? "team" + (char) ('A' + index) : "team" + index;
+    }
+
+    /**
+     * 팀 teamCount 개, 회원 memberCount 명 적재
+     * 회원 i 는 username=member{i}, age=i%100, team=i%teamCount 번째 팀
+     * */
+    public long seed(int teamCount, long memberCount) {
+        List<Long> teamIds = new ArrayList<>(teamCount);
+        inChunk(Team.class, () -> {
+            for (int i = 0; i < teamCount; i++) {
+                Team team = new Team(teamName(i));
+                em.persist(team);
+                teamIds.add(team.getId());
+            }
+        });
+
+        long startNanos = System.nanoTime();
+        long inserted = 0;
+        while (inserted < memberCount) {
+            long from = inserted;
+            long to = Math.min(memberCount, from + chunkSize);
+            inChunk(Member.class, () -> insertMembers(teamIds, from, to));
+            inserted = to;
+
+            logProgress(inserted, memberCount, startNanos);
+        }
+        return inserted;
+    }
+
+    // 트랜잭션 하나 -> 단건 이벤트 없이 적재하고 커밋 전에 벌크 이벤트 (커밋 후 리스너는 커밋되면 한번 반영)
+    private void inChunk(Class<?> entityType, Runnable insert) {
+        EntityChangeSuppression.run(() -> chunkTx.executeWithoutResult(status -> {
+            em.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            insert.run();
+            publisher.publishEvent(EntityChangeEvent.bulk(entityType));
+        }));
+    }
+
+    private void insertMembers(List<Long> teamIds, long from, long to) {
+        for (long i = from; i < to; i++) {
+            // 연관관계 편의 메서드는 team.members 컬렉션을 건드리므로 참조(프록시)만 세팅
+            Member member = new Member("member" + i, (int) (i % 100));
+            member.setTeam(em.getReference(Team.class, teamIds.get((int) (i % teamIds.size()))));
+            em.persist(member);
+
+            if ((i - from + 1) % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private void logProgress(long inserted, long total, long startNanos) {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        double rowsPerSecond = elapsedSeconds > 0 ? inserted / elapsedSeconds : 0;
+        long etaSeconds = rowsPerSecond > 0 ? (long) ((total - inserted) / rowsPerSecond) : 0;
+        log.info("member seed {}/{} ({}%) {} rows/s, eta {}s",
+                inserted, total, inserted * 100 / total, (long) rowsPerSecond, etaSeconds);
+    }
+}
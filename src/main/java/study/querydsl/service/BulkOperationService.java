@@ -0,0 +1,211 @@
+package study.querydsl.service;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 대량 update/delete 를 id 구간(chunk) 단위로 나눠서 chunk 마다 커밋
+ * - 한 문장으로 넓은 범위를 잠그지 않음, chunk 사이에 throttle 만큼 쉬어서 운영 트래픽에 양보
+ * - 처리된 엔티티는 현재 영속성 컨텍스트(OSIV 등)와 2차 캐시에서 자동으로 제거
+ *
+ * bulkOperationService.update(member, member.id, member.age.lt(28), update -> update.set(member.username, "비회원"));
+ *
+ * 조건(where)은 대상 id 를 고를 때 적용되고 update/delete 는 고른 id 로 실행 -> 조인이 필요한 조건도 사용 가능
+ * 고른 뒤 다른 트랜잭션이 바꿔서 더 이상 조건에 맞지 않는 행은 처리하지 않음
+ * - 엔티티 자신의 속성만 쓰는 조건 -> update/delete 에서도 조건을 다시 확인
+ * - 조인이 필요한 조건 -> 대상을 고를 때 행을 잠가서(select ... for update) 같은 chunk 트랜잭션이 끝날 때까지 변경을 막음
+ * */
+@Slf4j
+@Service
+public class BulkOperationService {
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTx;
+    private final int chunkSize;
+    private final Duration throttle;
+
+    public BulkOperationService(EntityManager em,
+                                EntityManagerFactory emf,
+                                JPAQueryFactory queryFactory,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.bulk.chunk-size:1000}") int chunkSize,
+                                @Value("${app.bulk.throttle:50ms}") Duration throttle) {
+        this.em = em;
+        this.emf = emf;
+        this.queryFactory = queryFactory;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.throttle = throttle;
+    }
+
+    public <T> BulkResult update(EntityPath<T> entity, NumberPath<Long> id, Predicate where, Consumer<JPAUpdateClause> set) {
+        Predicate recheck = recheckable(entity, where) ? where : null;
+        return execute("update", entity, id, where, ids -> {
+            JPAUpdateClause update = queryFactory.update(entity).where(id.in(ids), recheck);
+            set.accept(update);
+            return update.execute();
+        });
+    }
+
+    public <T> BulkResult delete(EntityPath<T> entity, NumberPath<Long> id, Predicate where) {
+        Predicate recheck = recheckable(entity, where) ? where : null;
+        return execute("delete", entity, id, where, ids -> queryFactory
+                .delete(entity)
+                .where(id.in(ids), recheck)
+                .execute());
+    }
+
+    // update/delete 문은 조인을 할 수 없음 -> 엔티티 자신의 속성, 상수만 쓰는 조건이면 그대로 다시 적용 가능
+    private static boolean recheckable(EntityPath<?> entity, Expression<?> expression) {
+        if (expression == null || expression instanceof Constant<?> || expression instanceof ParamExpression<?>) {
+            return true;
+        }
+        if (expression instanceof Path<?> path) {
+            return path.equals(entity) || entity.equals(path.getMetadata().getParent());
+        }
+        if (expression instanceof Operation<?> operation) {
+            return operation.getArgs().stream().allMatch(arg -> recheckable(entity, arg));
+        }
+        return false;   // 서브쿼리, 템플릿 등
+    }
+
+    private <T> BulkResult execute(String operation, EntityPath<T> entity, NumberPath<Long> id, Predicate where,
+                                   ChunkStatement statement) {
+        // 바깥 트랜잭션이 있으면 chunk 커밋이 의미 없고 바깥 트랜잭션 잠금과 엉킬 수 있음
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "벌크 연산은 트랜잭션 밖에서 호출해야 합니다.");
+
+        long startNanos = System.nanoTime();
+        long affected = 0;
+        int chunks = 0;
+        Long lastId = null;
+        boolean lock = !recheckable(entity, where);
+        while (true) {
+            Long afterId = lastId;
+            Chunk chunk = chunkTx.execute(status -> {
+                JPAQuery<Long> select = queryFactory
+                        .select(id)
+                        .from(entity)
+                        .where(where, afterId == null ? null : id.gt(afterId))
+                        .orderBy(id.asc())
+                        .limit(chunkSize);
+                if (lock) {
+                    select.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+                }
+                List<Long> ids = select.fetch();
+                return ids.isEmpty() ? null : new Chunk(ids, statement.execute(ids));
+            });
+            if (chunk == null) {
+                break;
+            }
+
+            evict(entity.getType(), chunk.ids);
+            affected += chunk.affected;
+            chunks++;
+            lastId = chunk.ids.get(chunk.ids.size() - 1);
+            logProgress(operation, entity, chunks, affected, lastId, startNanos);
+
+            if (chunk.ids.size() < chunkSize) {
+                break;
+            }
+            sleep();
+        }
+
+        return new BulkResult(affected, chunks, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    // 현재 스레드에 묶인 영속성 컨텍스트(OSIV)와 2차 캐시에서 처리된 엔티티 제거 -> 다음 조회 때 DB 에서 다시 읽음
+    private void evict(Class<?> entityType, List<Long> ids) {
+        EntityManager bound = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (bound != null) {
+            SessionImplementor session = bound.unwrap(SessionImplementor.class);
+            EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityType);
+            PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+            for (Long entityId : ids) {
+                Object managed = persistenceContext.getEntity(session.generateEntityKey(entityId, persister));
+                if (managed != null) {
+                    bound.detach(managed);
+                }
+            }
+        }
+
+        for (Long entityId : ids) {
+            emf.getCache().evict(entityType, entityId);
+        }
+    }
+
+    private void sleep() {
+        if (throttle.isZero() || throttle.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(throttle.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("벌크 연산 중단", e);
+        }
+    }
+
+    private void logProgress(String operation, EntityPath<?> entity, int chunks, long affected, Long lastId, long startNanos) {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long rowsPerSecond = elapsedSeconds > 0 ? (long) (affected / elapsedSeconds) : 0;
+        log.info("bulk {} {} chunk={} affected={} lastId={} {} rows/s",
+                operation, entity.getType().getSimpleName(), chunks, affected, lastId, rowsPerSecond);
+    }
+
+    @FunctionalInterface
+    private interface ChunkStatement {
+        long execute(List<Long> ids);
+    }
+
+    private record Chunk(List<Long> ids, long affected) {
+    }
+
+    @Getter
+    @ToString
+    public static class BulkResult {
+
+        private final long affected;
+        private final int chunks;
+        private final Duration elapsed;
+
+        public BulkResult(long affected, int chunks, Duration elapsed) {
+            this.affected = affected;
+            this.chunks = chunks;
+            this.elapsed = elapsed;
+        }
+    }
+}
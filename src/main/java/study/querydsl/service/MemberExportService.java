@@ -0,0 +1,67 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 검색 결과 전체 내보내기
+ * 한 행씩 읽어서 바로 응답에 쓰기 때문에 행 수와 상관없이 메모리 사용량이 일정함
+ * */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    public enum Format { NDJSON, JSON }
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int CLEAR_INTERVAL = 1000;     // 이 간격마다 영속성 컨텍스트 정리 + 응답 flush
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(MemberSearchCondition condition, Format format, OutputStream out) throws IOException {
+        long count = 0;
+
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, FETCH_SIZE);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);     // 응답 스트림은 컨테이너가 닫음
+            generator.setRootValueSeparator(null);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+
+            Iterator<MemberTeamDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                if (format == Format.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+
+                if (++count % CLEAR_INTERVAL == 0) {
+                    em.clear();
+                    generator.flush();
+                }
+            }
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        return count;
+    }
+}
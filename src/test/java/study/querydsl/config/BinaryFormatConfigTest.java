@@ -0,0 +1,102 @@
+package study.querydsl.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class BinaryFormatConfigTest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("binary1", 10, teamA));
+        em.persist(new Member("binary2", 20, null));
+        em.flush();
+    }
+
+    @DisplayName("Smile 페이지 -> 작은 envelope")
+    @Test
+    public void smilePage() throws Exception{
+        MvcResult result = mockMvc.perform(get("/v2/members").param("username", "binary1").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        JsonNode page = smileConverter.getObjectMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.has("pageable")).isFalse();
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.get("hasNext").asBoolean()).isFalse();
+        assertThat(page.get("contents").get(0).get("username").asText()).isEqualTo("binary1");
+        assertThat(page.get("contents").get(0).get("teamName").asText()).isEqualTo("teamA");
+    }
+
+    @DisplayName("CBOR 목록, 팀이 없으면 null")
+    @Test
+    public void cborList() throws Exception{
+        MvcResult result = mockMvc.perform(get("/v1/members").param("username", "binary2").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode list = cborConverter.getObjectMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(list.get(0).get("age").asInt()).isEqualTo(20);
+        assertThat(list.get(0).get("teamId").isNull()).isTrue();
+    }
+
+    @DisplayName("JSON 응답 형식은 그대로, 포맷마다 ETag 가 다름")
+    @Test
+    public void jsonUnchanged() throws Exception{
+        MvcResult json = mockMvc.perform(get("/v2/members").param("username", "binary1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        MvcResult smile = mockMvc.perform(get("/v2/members").param("username", "binary1").accept(SMILE))
+                .andReturn();
+
+        JsonNode page = objectMapper.readTree(json.getResponse().getContentAsString());
+        assertThat(page.has("content")).isTrue();
+        assertThat(page.get("content").get(0).fieldNames()).toIterable()
+                .containsExactly("memberId", "username", "age", "teamId", "teamName");
+        assertThat(json.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(smile.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+}
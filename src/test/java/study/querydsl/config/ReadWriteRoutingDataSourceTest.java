@@ -0,0 +1,84 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @AfterEach
+    public void after() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        routingDataSource.destroy();
+    }
+
+    @DisplayName("읽기 전용 트랜잭션만 replica 로 라우팅")
+    @Test
+    public void routeReadOnly() throws Exception{
+        routingDataSource = routing(Map.of("replica1", h2("replica1")));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        // 기본값을 주지 않으면 첫 커넥션 전에 기본값 확인용 커넥션을 primary 에서 한번 더 얻음
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        assertThat(url(dataSource)).contains("primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(url(dataSource)).contains("replica1");
+
+        assertThat(meterRegistry.get("datasource.routing").tag("target", "primary").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.routing").tag("target", "replica1").counter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("연결 안되는 replica 는 제외하고 모두 안되면 primary 로 대체")
+    @Test
+    public void fallbackToPrimary() throws Exception{
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", new DriverManagerDataSource("jdbc:h2:file:/nonexistent/dir/db;IFEXISTS=TRUE", "sa", ""));
+        replicas.put("replica2", h2("replica2"));
+        routingDataSource = routing(replicas);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(url(routingDataSource)).contains("replica2");
+        assertThat(url(routingDataSource)).contains("replica2");    // broken 은 제외됨
+        assertThat(routingDataSource.health()).containsEntry("broken", false).containsEntry("replica2", true);
+
+        routingDataSource.destroy();
+        routingDataSource = routing(Map.of("broken", new DriverManagerDataSource("jdbc:h2:file:/nonexistent/dir/db;IFEXISTS=TRUE", "sa", "")));
+        routingDataSource.checkHealth();
+
+        assertThat(url(routingDataSource)).contains("primary");
+        assertThat(meterRegistry.get("datasource.replica.fallback").counter().count()).isEqualTo(1);
+    }
+
+    private ReadWriteRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReadWriteRoutingDataSource(h2("primary"), replicas, meterRegistry, Duration.ofMinutes(1), Duration.ofSeconds(1));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    // LazyConnectionDataSourceProxy 는 실제 쿼리 시점에 커넥션을 얻으므로 메타데이터 조회로 대상 확인
+    private static String url(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// replica 도 같은 DB 를 바라보게 해서 스키마/데이터는 같고 라우팅 결과는 메트릭으로 확인
+// 테스트 application.yml 이 main 설정을 가리므로 exclude-beans 도 여기서 지정
+@SpringBootTest(properties = {
+        "decorator.datasource.exclude-beans=lazyConnectionDataSource",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.targets[0].name=replica1",
+        "app.datasource.replica.targets[0].url=${spring.datasource.url}",
+        "app.datasource.replica.targets[0].username=${spring.datasource.username}",
+        "app.datasource.replica.targets[0].password=",
+        "app.datasource.replica.targets[0].hikari.maximum-pool-size=3",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "spring.datasource.hikari.connection-timeout=5000"})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    @Qualifier("readWriteRoutingDataSource")
+    DataSource routingDataSource;   // p6spy 로 감싸져 있음
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Member saved;
+
+    @AfterEach
+    public void after() {
+        if (saved != null) {
+            memberRepository.deleteById(saved.getId());
+        }
+    }
+
+    @DisplayName("풀 설정 - primary 는 spring.datasource.hikari, replica 는 자기 설정 우선")
+    @Test
+    public void poolSettings() throws Exception{
+        ReadWriteRoutingDataSource routing = routingDataSource.unwrap(ReadWriteRoutingDataSource.class);
+        HikariDataSource primary = (HikariDataSource) routing.target(ReadWriteRoutingDataSource.PRIMARY);
+        HikariDataSource replica = (HikariDataSource) routing.target("replica1");
+
+        assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+        assertThat(primary.getConnectionTimeout()).isEqualTo(5000);
+        assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+        assertThat(replica.getConnectionTimeout()).isEqualTo(5000);
+        assertThat(replica.isReadOnly()).isTrue();
+    }
+
+    @DisplayName("readOnly 트랜잭션의 repository 호출 -> replica")
+    @Test
+    public void readOnlyRepositoryCallUsesReplica() throws Exception{
+        saved = memberRepository.save(new Member("replicaRead", 10));     // 쓰기는 primary
+
+        double primaryBefore = routes(ReadWriteRoutingDataSource.PRIMARY);
+        double replicaBefore = routes("replica1");
+
+        // search 는 @Transactional(readOnly = true), findByUsername 같은 쿼리 메서드는 트랜잭션 없이 실행돼서 primary 로 감
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("replicaRead");
+        assertThat(memberRepository.search(condition))
+                .extracting(MemberTeamDto::getMemberId).containsExactly(saved.getId());
+
+        assertThat(routes("replica1")).isEqualTo(replicaBefore + 1);
+        assertThat(routes(ReadWriteRoutingDataSource.PRIMARY)).isEqualTo(primaryBefore);
+    }
+
+    private double routes(String target) {
+        return meterRegistry.get("datasource.routing").tag("target", target).counter().count();
+    }
+}
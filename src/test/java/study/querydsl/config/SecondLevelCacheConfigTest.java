@@ -0,0 +1,95 @@
+package study.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitor.SqlStatementCounter;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+// 쿼리 캐시는 커밋된 데이터만 사용하므로 테스트 트랜잭션 없이 실행하고 직접 정리
+@SpringBootTest
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    SqlStatementCounter statementCounter;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    public void before(){
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("cacheA");
+            em.persist(teamA);
+            em.persist(new Member("cached1", 10, teamA));
+            em.persist(new Member("cached2", 20, teamA));
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        tx.executeWithoutResult(status -> {
+            queryFactory.delete(member).where(member.username.startsWith("cached")).execute();
+            queryFactory.delete(team).where(team.name.eq("cacheA")).execute();
+        });
+    }
+
+    @DisplayName("findByUsername 두번째 호출은 쿼리 캐시 + 엔티티 캐시 -> SQL 없음")
+    @Test
+    public void findByUsernameCached() throws Exception{
+        assertThat(memberRepository.findByUsername("cached1")).hasSize(1);
+
+        long before = statementCounter.current();
+        assertThat(memberRepository.findByUsername("cached1")).extracting("age").containsExactly(10);
+        assertThat(statementCounter.current() - before).isZero();
+    }
+
+    @DisplayName("Querydsl 버전도 같은 리전 사용")
+    @Test
+    public void findByUsernameCachedQuerydsl() throws Exception{
+        assertThat(memberJpaRepository.findByUsername("cached1")).hasSize(1);
+
+        long before = statementCounter.current();
+        assertThat(memberJpaRepository.findByUsername("cached1")).extracting("username").containsExactly("cached1");
+        assertThat(statementCounter.current() - before).isZero();
+    }
+
+    @DisplayName("회원이 변경되면 쿼리 캐시 무효화")
+    @Test
+    public void invalidateOnUpdate() throws Exception{
+        memberRepository.findByUsername("cached2");
+
+        tx.executeWithoutResult(status -> memberRepository.findByUsername("cached2").get(0).setAge(21));
+
+        assertThat(memberRepository.findByUsername("cached2")).extracting("age").containsExactly(21);
+    }
+}
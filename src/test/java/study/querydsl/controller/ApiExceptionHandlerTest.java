@@ -0,0 +1,31 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ApiExceptionHandlerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @DisplayName("허용하지 않은 정렬 키 -> 400")
+    @Test
+    public void unsupportedSort() throws Exception{
+        mockMvc.perform(get("/v2/members").param("sort", "teamName"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("teamName")));
+    }
+}
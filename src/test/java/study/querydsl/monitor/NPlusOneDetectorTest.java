@@ -0,0 +1,80 @@
+package study.querydsl.monitor;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class NPlusOneDetectorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    NPlusOneDetector detector;
+
+    @BeforeEach
+    public void before(){
+        for (int i = 0; i < 4; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i, 10 * i, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @DisplayName("지연로딩으로 팀을 하나씩 조회하면 N+1")
+    @Test
+    public void detectLazyLoading() throws Exception{
+        NPlusOneReport report;
+        try (NPlusOneDetector.Scope scope = detector.open("lazy")) {
+            List<Member> members = queryFactory.selectFrom(member).fetch();
+            for (Member m : members) {
+                m.getTeam().getName();
+            }
+            report = scope.report();
+        }
+
+        assertThat(report.hasNPlusOne()).isTrue();
+        assertThat(report.getSuspects().get(0).getCount()).isEqualTo(4);
+        assertThatThrownBy(report::assertNoNPlusOne)
+                .isInstanceOf(NPlusOneReport.NPlusOneDetectedException.class);
+    }
+
+    @DisplayName("페치조인이면 쿼리 한번")
+    @Test
+    public void fetchJoin() throws Exception{
+        try (NPlusOneDetector.Scope scope = detector.open("fetchJoin")) {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .fetch();
+            for (Member m : members) {
+                m.getTeam().getName();
+            }
+
+            scope.report()
+                    .assertNoNPlusOne()
+                    .assertMaxStatements(1);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package study.querydsl.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.support.MemberSearchShape;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    SqlStatementCounter statementCounter = new SqlStatementCounter();
+    QueryMetrics queryMetrics = new QueryMetrics(registry, statementCounter);
+
+    @DisplayName("메서드 x 모양 태그별 실행시간, 행 수, SQL 수")
+    @Test
+    public void methodByShape() throws Exception{
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(20);
+
+        queryMetrics.record("MemberRepository.search", condition, () -> executed(2, List.of(1, 2, 3)));
+        queryMetrics.record("MemberRepository.search", condition, () -> executed(1, List.of(4)));
+        queryMetrics.record("MemberRepository.search", new MemberSearchCondition(), () -> executed(1, List.of()));
+
+        assertThat(registry.get("member.query").tag("method", "MemberRepository.search").tag("shape", "teamName+ageGoe")
+                .timer().count()).isEqualTo(2);
+        assertThat(summary("member.query.rows", "MemberRepository.search", "teamName+ageGoe").totalAmount()).isEqualTo(4);
+        assertThat(summary("member.query.statements", "MemberRepository.search", "teamName+ageGoe").totalAmount()).isEqualTo(3);
+        assertThat(summary("member.query.statements", "MemberRepository.search", "teamName+ageGoe").max()).isEqualTo(2);
+
+        // 모양이 다르면 다른 미터
+        assertThat(summary("member.query.rows", "MemberRepository.search", "none").count()).isEqualTo(1);
+        assertThat(summary("member.query.rows", "MemberRepository.search", "none").totalAmount()).isZero();
+        assertThat(registry.find("member.query").timers()).hasSize(2);
+    }
+
+    @DisplayName("페이지는 내용 행 수, batch 모양 태그")
+    @Test
+    public void pageAndBatch() throws Exception{
+        queryMetrics.record("MemberRepository.searchBatch", MemberSearchShape.BATCH,
+                () -> executed(1, new PageImpl<>(List.of(1, 2), PageRequest.of(0, 2), 10)));
+
+        assertThat(summary("member.query.rows", "MemberRepository.searchBatch", "batch").totalAmount()).isEqualTo(2);
+        assertThat(summary("member.query.statements", "MemberRepository.searchBatch", "batch").totalAmount()).isEqualTo(1);
+    }
+
+    @DisplayName("실패한 쿼리도 실행시간, SQL 수는 기록하고 행 수는 기록하지 않음")
+    @Test
+    public void failedQuery() throws Exception{
+        assertThatThrownBy(() -> queryMetrics.record("MemberRepository.search", new MemberSearchCondition(), () -> {
+            executed(1, null);
+            throw new IllegalStateException("query failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("member.query").tag("shape", "none").timer().count()).isEqualTo(1);
+        assertThat(summary("member.query.statements", "MemberRepository.search", "none").totalAmount()).isEqualTo(1);
+        assertThat(summary("member.query.rows", "MemberRepository.search", "none").count()).isZero();
+    }
+
+    // p6spy 가 SQL 마다 호출하는 것처럼 카운터를 올림
+    private <T> T executed(int statements, T result) {
+        for (int i = 0; i < statements; i++) {
+            statementCounter.onAfterAnyExecute(null, 0, null);
+        }
+        return result;
+    }
+
+    private DistributionSummary summary(String name, String method, String shape) {
+        return registry.get(name).tag("method", method).tag("shape", shape).summary();
+    }
+}
@@ -0,0 +1,61 @@
+package study.querydsl.monitor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.repository.support.MemberSearchShape;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class QueryPlanAdvisorTest {
+
+    @Autowired
+    QueryPlanAdvisor advisor;
+
+    @DisplayName("username 조건이 있으면 member 풀스캔이 없어야 함")
+    @Test
+    public void usernameShapesUseIndex() throws Exception{
+        List<QueryPlan> plans = advisor.adviseAll();
+
+        for (QueryPlan plan : plans) {
+            if (MemberSearchShape.has(plan.getShape(), MemberSearchShape.USERNAME)) {
+                assertThat(plan.isFullScan("member")).as(plan.format()).isFalse();
+            }
+        }
+    }
+
+    @DisplayName("팀 이름 조건은 team_id 인덱스로 회원을 찾음")
+    @Test
+    public void teamNameShapeUsesTeamIdIndex() throws Exception{
+        QueryPlan plan = advisor.advise(MemberSearchShape.TEAM_NAME);
+
+        assertThat(plan.usesIndex("idx_member_team_id")).as(plan.format()).isTrue();
+        assertThat(plan.isFullScan("member")).as(plan.format()).isFalse();
+    }
+
+    @DisplayName("나이 조건은 age 인덱스 사용")
+    @Test
+    public void ageShapesUseAgeIndex() throws Exception{
+        for (int shape : new int[]{MemberSearchShape.AGE_GOE, MemberSearchShape.AGE_LOE,
+                MemberSearchShape.AGE_GOE | MemberSearchShape.AGE_LOE}) {
+            QueryPlan plan = advisor.advise(shape);
+
+            assertThat(plan.usesIndex("idx_member_age")).as(plan.format()).isTrue();
+            assertThat(plan.isFullScan("member")).as(plan.format()).isFalse();
+        }
+    }
+
+    @DisplayName("조건이 없으면 풀스캔으로 잡아냄")
+    @Test
+    public void detectFullScan() throws Exception{
+        QueryPlan plan = advisor.advise(0);
+
+        assertThat(plan.isFullScan("member")).as(plan.format()).isTrue();
+    }
+}
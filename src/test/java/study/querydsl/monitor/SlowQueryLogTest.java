@@ -0,0 +1,74 @@
+package study.querydsl.monitor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlowQueryLogTest {
+
+    SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(10), 3, 100);
+
+    @DisplayName("링버퍼는 최근 N 개만 최신순으로")
+    @Test
+    public void ringBuffer() throws Exception{
+        for (int i = 0; i < 5; i++) {
+            String sql = "select * from member where member_id = " + i;
+            slowQueryLog.record(sql, () -> sql, millis(20 + i), millis(1), null);
+        }
+        slowQueryLog.record("select 1", () -> "select 1", millis(1), 0, null);     // 빠른 SQL 은 제외
+
+        List<SlowQueryLog.SlowQuery> recent = slowQueryLog.recent();
+        assertThat(recent).extracting("sql").containsExactly(
+                "select * from member where member_id = 4",
+                "select * from member where member_id = 3",
+                "select * from member where member_id = 2");
+        assertThat(recent.get(0).getConnectionAcquireMillis()).isEqualTo(1.0);
+        assertThat(recent.get(0).getOrigin()).startsWith(SlowQueryLogTest.class.getName());
+    }
+
+    @DisplayName("reset 후에는 순번도 처음부터")
+    @Test
+    public void resetRestartsSequence() throws Exception{
+        for (int i = 0; i < 5; i++) {
+            slowQueryLog.record("select " + i, () -> "before", millis(20), 0, null);
+        }
+        slowQueryLog.reset();
+
+        slowQueryLog.record("select 1", () -> "after", millis(20), 0, null);
+
+        List<SlowQueryLog.SlowQuery> recent = slowQueryLog.recent();
+        assertThat(recent).extracting("sql").containsExactly("after");
+        assertThat(recent.get(0).getSequence()).isZero();
+        assertThat(slowQueryLog.topStatements(10)).extracting("count").containsExactly(1L);
+    }
+
+    @DisplayName("정규화된 SQL 별 통계")
+    @Test
+    public void statsPerNormalizedSql() throws Exception{
+        slowQueryLog.record("select * from member where age > 10", () -> "", millis(30), 0, null);
+        slowQueryLog.record("select * from member where age > 20", () -> "", millis(5), 0, null);
+
+        SlowQueryLog.SqlStatsSnapshot stats = slowQueryLog.topStatements(10).get(0);
+        assertThat(stats.getSql()).isEqualTo("select * from member where age > ?");
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getSlowCount()).isEqualTo(1);
+        assertThat(stats.getMaxMillis()).isEqualTo(30.0);
+    }
+
+    @DisplayName("버퍼 크기는 1 이상")
+    @Test
+    public void bufferSizeMustBePositive() throws Exception{
+        assertThatThrownBy(() -> new SlowQueryLog(Duration.ofMillis(10), 0, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,52 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.batch-search.max-rows=3")
+@Transactional
+class MemberBatchSearchLimitTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @DisplayName("여러 검색조건 - 전체 결과 행 수 상한")
+    @Test
+    public void maxRows() throws Exception{
+        for (int i = 0; i < 4; i++) {
+            em.persist(new Member("limit" + i, 9100 + i));     // 다른 테스트 데이터와 겹치지 않는 나이
+        }
+
+        MemberSearchCondition byName = new MemberSearchCondition();
+        byName.setUsername("limit0");
+        MemberSearchCondition upTo9102 = new MemberSearchCondition();
+        upTo9102.setAgeGoe(9100);
+        upTo9102.setAgeLoe(9102);
+
+        // 여러 조건에 걸린 행은 한번만 셈 -> limit0, limit1, limit2
+        List<List<MemberTeamDto>> result = memberRepository.searchBatch(List.of(byName, upTo9102));
+        assertThat(result.get(1)).extracting("username").containsExactly("limit0", "limit1", "limit2");
+
+        MemberSearchCondition all = new MemberSearchCondition();
+        all.setAgeGoe(9100);
+        assertThatThrownBy(() -> memberRepository.searchBatch(List.of(all)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
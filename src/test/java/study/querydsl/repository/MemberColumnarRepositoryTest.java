@@ -0,0 +1,97 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberColumns;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class MemberColumnarRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberColumnarRepository memberColumnarRepository;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before(){
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50));
+    }
+
+    @DisplayName("팀별 집계가 Querydsl groupBy 결과와 같음")
+    @Test
+    public void groupByTeam() throws Exception{
+        MemberColumns columns = memberColumnarRepository.fetchColumns(new MemberSearchCondition());
+
+        List<Tuple> expected = queryFactory
+                .select(team.name, member.age.avg(), member.age.max(), member.count())
+                .from(member)
+                .join(member.team, team)
+                .groupBy(team.name)
+                .fetch();
+
+        double[] avg = columns.avgAgeByTeam();
+        int[] max = columns.maxAgeByTeam();
+        long[] count = columns.countByTeam();
+        for (Tuple tuple : expected) {
+            int code = codeOf(columns, tuple.get(team.name));
+            assertThat(avg[code]).isEqualTo(tuple.get(member.age.avg()));
+            assertThat(max[code]).isEqualTo(tuple.get(member.age.max()));
+            assertThat(count[code]).isEqualTo(tuple.get(member.count()));
+        }
+        assertThat(columns.size()).isEqualTo(5);
+        assertThat(columns.sumAge()).isEqualTo(150);
+    }
+
+    @DisplayName("검색조건 적용")
+    @Test
+    public void searchCondition() throws Exception{
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(35);
+
+        MemberColumns columns = memberColumnarRepository.fetchColumns(condition);
+
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(columns.age(0)).isEqualTo(40);
+        assertThat(columns.teamName(columns.teamCode(0))).isEqualTo("teamB");
+    }
+
+    private static int codeOf(MemberColumns columns, String teamName) {
+        for (int code = 0; code < columns.teamCount(); code++) {
+            if (columns.teamName(code).equals(teamName)) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException(teamName);
+    }
+}
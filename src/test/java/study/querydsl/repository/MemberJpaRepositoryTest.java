@@ -14,6 +14,7 @@ import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,4 +80,52 @@ class MemberJpaRepositoryTest {
         System.out.println("result = " + result);
     }
 
-}
\ No newline at end of file
+    @DisplayName("search stream")
+    @Test
+    public void searchStream() throws Exception{
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(5);
+
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, 3)) {
+            assertEquals(5, stream.count());
+        }
+    }
+
+    @DisplayName("검색조건 모양별 캐시된 쿼리")
+    @Test
+    public void searchWithCachedShape() throws Exception{
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(35);
+        assertEquals(1, memberJpaRepository.searchCached(condition).size());
+
+        // 같은 모양, 다른 값 -> 캐시된 JPQL 에 값만 다시 바인딩
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(15);
+        List<MemberTeamDto> result = memberJpaRepository.searchCached(condition);
+        assertEquals(1, result.size());
+        assertEquals("member2", result.get(0).getUsername());
+        assertEquals("teamA", result.get(0).getTeamName());
+
+        // Querydsl 로 매번 조립하는 방식과 결과가 같음
+        assertEquals(result, memberJpaRepository.search(condition));
+        assertEquals(result, memberJpaRepository.searchByBuilder(condition));
+        assertEquals(4, memberJpaRepository.searchCached(new MemberSearchCondition()).size());
+    }
+
+}
@@ -4,22 +4,33 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.CursorPage;
+import study.querydsl.dto.EstimatedPage;
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.support.NPlusOneExtension;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 
 @SpringBootTest
 @Transactional
+@ExtendWith(NPlusOneExtension.class)
 class MemberRepositoryTest {
 
     @Autowired
@@ -58,6 +69,9 @@ class MemberRepositoryTest {
 
         List<MemberTeamDto> result = memberRepository.search(condition);
         System.out.println("result = " + result);
+
+        // 캐시한 JPQL 로 조회해도 같은 결과
+        assertThat(memberRepository.searchCached(condition)).isEqualTo(result);
     }
 
     @DisplayName("Page")
@@ -94,4 +108,134 @@ class MemberRepositoryTest {
         System.out.println("result = " + result.getContent());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Pageable 정렬 -> 인덱스 정렬키 + id")
+    @Test
+    public void searchPageSorted() throws Exception{
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 20, teamA));
+        em.persist(new Member("member2", 10, teamA));
+        em.persist(new Member("member3", 20, teamA));
+        em.persist(new Member("member4", 30, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // 같은 나이는 id 역순
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age")));
+        assertThat(result.getContent()).extracting("username").containsExactly("member4", "member3", "member1");
+
+        // 두번째 키는 버림
+        Page<MemberTeamDto> byUsername = memberRepository.searchPageComplex(condition, PageRequest.of(0, 2, Sort.by("username", "age")));
+        assertThat(byUsername.getContent()).extracting("username").containsExactly("member1", "member2");
+
+        // repository 프록시의 예외 변환으로 감싸짐 -> ApiExceptionHandler 에서 400
+        assertThatThrownBy(() -> memberRepository.searchPageComplex(condition, PageRequest.of(0, 2, Sort.by("teamName"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("추정 total 페이지")
+    @Test
+    public void searchPageEstimated() throws Exception{
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 4; i++) {
+            em.persist(new Member("member" + i, 10 * i, teamA));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+
+        // 페이지가 꽉 차면 total 을 추정, 작은 테이블은 정확한 count 라서 추정값이 아님
+        EstimatedPage<MemberTeamDto> first = memberRepository.searchPageEstimated(condition, PageRequest.of(0, 2));
+        assertThat(first.isTotalEstimated()).isFalse();
+        assertThat(first.getTotalElements()).isEqualTo(3);
+
+        // 마지막 페이지는 정확한 값
+        EstimatedPage<MemberTeamDto> last = memberRepository.searchPageEstimated(condition, PageRequest.of(1, 2));
+        assertThat(last.isTotalEstimated()).isFalse();
+        assertThat(last.getTotalElements()).isEqualTo(3);
+    }
+
+    @DisplayName("여러 검색조건을 쿼리 한번으로")
+    @Test
+    public void searchBatch() throws Exception{
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("teamB");
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(20);
+        byAge.setAgeLoe(30);
+        MemberSearchCondition byName = new MemberSearchCondition();
+        byName.setUsername("member1");
+
+        List<List<MemberTeamDto>> result = memberRepository.searchBatch(List.of(byTeam, byAge, byName));
+
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0)).extracting("username").containsExactly("member3", "member4");
+        assertThat(result.get(1)).extracting("username").containsExactly("member2", "member3");
+        assertThat(result.get(2)).extracting("username").containsExactly("member1");
+    }
+
+    @DisplayName("여러 검색조건 - 빈 조건은 거절")
+    @Test
+    public void searchBatchEmptyCondition() throws Exception{
+        MemberSearchCondition byName = new MemberSearchCondition();
+        byName.setUsername("member1");
+        MemberSearchCondition empty = new MemberSearchCondition();
+
+        // 테이블 전체를 읽게 되므로 거절, 컨트롤러에서는 400
+        assertThatThrownBy(() -> memberRepository.searchBatch(List.of(byName, empty)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("2번째");
+    }
+
+    @DisplayName("커서 페이징")
+    @Test
+    public void searchByCursor() throws Exception{
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 40, teamA));
+        em.persist(new Member("member2", 30, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 10, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        CursorPage<MemberTeamDto> first = memberRepository.searchByCursor(condition, MemberCursor.SortKey.AGE, null, 2);
+        assertThat(first.getContents()).extracting("username").containsExactly("member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+
+        CursorPage<MemberTeamDto> second = memberRepository.searchByCursor(condition, MemberCursor.SortKey.AGE, first.getNextCursor(), 2);
+        assertThat(second.getContents()).extracting("username").containsExactly("member1");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        // 다른 검색조건에 커서를 이어 붙이면 거절, 빈 문자열은 조건 없음과 같음
+        MemberSearchCondition changed = new MemberSearchCondition();
+        changed.setAgeGoe(30);
+        assertThatThrownBy(() -> memberRepository.searchByCursor(changed, MemberCursor.SortKey.AGE, first.getNextCursor(), 2))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        condition.setUsername("");
+        assertThat(memberRepository.searchByCursor(condition, MemberCursor.SortKey.AGE, first.getNextCursor(), 2).getContents())
+                .extracting("username").containsExactly("member1");
+    }
+
+}
@@ -0,0 +1,99 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamMembersDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitor.NPlusOneDetector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    NPlusOneDetector detector;
+
+    @BeforeEach
+    public void before(){
+        for (int t = 0; t < 3; t++) {
+            Team team = new Team("team" + t);
+            em.persist(team);
+            for (int m = 0; m < 3; m++) {
+                em.persist(new Member("member" + t + m, 10 * m, team));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @DisplayName("팀을 DB 에서 페이징하고 회원은 한번에 조회")
+    @Test
+    public void teamsWithMembers() throws Exception{
+        try (NPlusOneDetector.Scope scope = detector.open("teamsWithMembers")) {
+            Page<TeamMembersDto> result = teamRepository.findTeamsWithMembers(PageRequest.of(0, 2), null);
+
+            assertThat(result.getTotalElements()).isEqualTo(3);
+            assertThat(result.getContent()).extracting("teamName").containsExactly("team0", "team1");
+            assertThat(result.getContent().get(0).getMembers()).extracting("username")
+                    .containsExactly("member00", "member01", "member02");
+
+            scope.report().assertMaxStatements(3);     // 팀, 회원, count
+        }
+    }
+
+    @DisplayName("팀별 회원 수 제한")
+    @Test
+    public void capMembersPerTeam() throws Exception{
+        Page<TeamMembersDto> result = teamRepository.findTeamsWithMembers(PageRequest.of(1, 2), 2);
+
+        assertThat(result.getContent()).extracting("teamName").containsExactly("team2");
+        assertThat(result.getContent().get(0).getMembers()).extracting("username")
+                .containsExactly("member20", "member21");
+    }
+
+    @DisplayName("팀별 회원 수 제한은 팀마다 따로, 쿼리 수는 그대로")
+    @Test
+    public void capMembersPerTeamEachTeam() throws Exception{
+        try (NPlusOneDetector.Scope scope = detector.open("capMembersPerTeamEachTeam")) {
+            Page<TeamMembersDto> result = teamRepository.findTeamsWithMembers(PageRequest.of(0, 3), 1);
+
+            assertThat(result.getContent()).extracting("teamName").containsExactly("team0", "team1", "team2");
+            assertThat(result.getContent()).flatExtracting("members").extracting("username")
+                    .containsExactly("member00", "member10", "member20");
+            assertThat(result.getContent().get(0).getMembers().get(0).getAge()).isEqualTo(0);
+
+            scope.report().assertMaxStatements(3);     // 팀, 회원, count
+        }
+    }
+
+    @DisplayName("팀 정렬 - id, name 만 허용")
+    @Test
+    public void sortTeams() throws Exception{
+        Page<TeamMembersDto> byName = teamRepository.findTeamsWithMembers(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "name")), 1);
+        assertThat(byName.getContent()).extracting("teamName").containsExactly("team2", "team1");
+
+        // 조인 결과나 집계로 정렬하려면 전체를 읽어야 함 -> 거절 (컨트롤러에서는 400)
+        assertThatThrownBy(() -> teamRepository.findTeamsWithMembers(PageRequest.of(0, 2, Sort.by("members")), null))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
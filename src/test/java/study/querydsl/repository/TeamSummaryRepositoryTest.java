@@ -0,0 +1,169 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.TeamSummaryDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitor.SqlStatementCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+// 커밋 후에 반영되므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 정리
+@SpringBootTest
+class TeamSummaryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    TeamSummaryRepository teamSummaryRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    SqlStatementCounter statementCounter;
+
+    TransactionTemplate tx;
+    Long member1Id;
+    Long member3Id;
+    Long teamAId;
+    Long teamBId;
+
+    @BeforeEach
+    public void before(){
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("summaryA");
+            Team teamB = new Team("summaryB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            Member member1 = new Member("summary1", 10, teamA);
+            Member member3 = new Member("summary3", 30, teamB);
+            em.persist(member1);
+            em.persist(new Member("summary2", 20, teamA));
+            em.persist(member3);
+            member1Id = member1.getId();
+            member3Id = member3.getId();
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        tx.executeWithoutResult(status -> {
+            queryFactory.delete(member).where(member.username.startsWith("summary")).execute();
+            queryFactory.delete(team).where(team.name.startsWith("summary")).execute();
+        });
+    }
+
+    @DisplayName("등록, 팀 변경, 삭제가 커밋 후 증분 반영")
+    @Test
+    public void incremental() throws Exception{
+        TeamSummaryDto teamA = summary("summaryA");
+        assertThat(teamA.getMemberCount()).isEqualTo(2);
+        assertThat(teamA.getAvgAge()).isEqualTo(15.0);
+        assertThat(teamA.getMinAge()).isEqualTo(10);
+        assertThat(teamA.getMaxAge()).isEqualTo(20);
+
+        tx.executeWithoutResult(status -> {
+            Member member1 = em.find(Member.class, member1Id);
+            member1.changeTeam(em.find(Team.class, teamBId));
+        });
+
+        assertThat(summary("summaryA").getMemberCount()).isEqualTo(1);
+        assertThat(summary("summaryA").getMinAge()).isEqualTo(20);
+        assertThat(summary("summaryB").getMemberCount()).isEqualTo(2);
+        assertThat(summary("summaryB").getMinAge()).isEqualTo(10);
+        assertThat(summary("summaryB").getAgeBuckets()).containsEntry(10, 1L).containsEntry(30, 1L);
+
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, member3Id)));
+
+        assertThat(summary("summaryB").getMemberCount()).isEqualTo(1);
+        assertThat(summary("summaryB").getMaxAge()).isEqualTo(10);
+    }
+
+    @DisplayName("벌크 update 후에는 다시 집계")
+    @Test
+    public void reconcileAfterBulk() throws Exception{
+        summary("summaryA");
+
+        tx.executeWithoutResult(status -> queryFactory
+                .update(member)
+                .set(member.age, 50)
+                .where(member.username.eq("summary2"))
+                .execute());
+
+        assertThat(summary("summaryA").getMaxAge()).isEqualTo(50);
+        assertThat(summary("summaryA").getAvgAge()).isEqualTo(30.0);
+    }
+
+    @DisplayName("재집계 전에 커밋된 변경의 커밋 후 반영이 재집계 뒤에 와도 두번 세지 않음")
+    @Test
+    public void commitInterleavedWithRebuild() throws Exception{
+        assertThat(summary("summaryA").getMemberCount()).isEqualTo(2);
+
+        // flush, 커밋까지 끝났지만 커밋 후 리스너는 아직 안 온 상태 (JDBC insert 라 하이버네이트 이벤트 없음)
+        long flushed = teamSummaryRepository.memberFlushed();
+        jdbcTemplate.update("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)",
+                900_000_001L, "summary4", 40, teamAId);
+
+        // 재집계 스냅샷에 summary4 가 들어감
+        teamSummaryRepository.markStale();
+        assertThat(summary("summaryA").getMemberCount()).isEqualTo(3);
+
+        // 늦게 온 증분은 더하지 않고 그 팀만 다시 집계 (팀 이름 조회 없이 집계 쿼리 하나)
+        teamSummaryRepository.memberAdded(flushed, teamAId, 40);
+        long before = statementCounter.current();
+        assertThat(summary("summaryA").getMemberCount()).isEqualTo(3);
+        assertThat(statementCounter.current() - before).isEqualTo(1);
+        assertThat(summary("summaryA").getMaxAge()).isEqualTo(40);
+
+        // 이후 변경은 다시 증분 반영
+        tx.executeWithoutResult(status -> em.persist(new Member("summary5", 50, em.find(Team.class, teamAId))));
+        before = statementCounter.current();
+        assertThat(summary("summaryA").getMemberCount()).isEqualTo(4);
+        assertThat(statementCounter.current() - before).isZero();
+    }
+
+    @DisplayName("재집계 이후에 flush 된 변경은 다시 집계하지 않고 바로 반영")
+    @Test
+    public void flushedAfterRebuildApplied() throws Exception{
+        teamSummaryRepository.markStale();
+        assertThat(summary("summaryB").getMemberCount()).isEqualTo(1);
+
+        long flushed = teamSummaryRepository.memberFlushed();
+        teamSummaryRepository.memberAdded(flushed, teamBId, 35);
+
+        long before = statementCounter.current();
+        assertThat(summary("summaryB").getMemberCount()).isEqualTo(2);
+        assertThat(summary("summaryB").getMaxAge()).isEqualTo(35);
+        assertThat(statementCounter.current() - before).isZero();
+
+        teamSummaryRepository.markStale();      // DB 에는 없는 변경이므로 정리
+    }
+
+    private TeamSummaryDto summary(String teamName) {
+        return teamSummaryRepository.findByTeamName(teamName).orElseThrow();
+    }
+}
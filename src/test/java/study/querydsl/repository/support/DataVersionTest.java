@@ -0,0 +1,59 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.EntityChangeEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataVersionTest {
+
+    DataVersion dataVersion = new DataVersion(true, false);
+
+    @DisplayName("정규화된 조건이 같으면 같은 ETag, 조건이 다르면 다른 ETag")
+    @Test
+    public void etagPerCondition() throws Exception{
+        MemberSearchCondition condition1 = new MemberSearchCondition();
+        condition1.setUsername("");
+        MemberSearchCondition condition2 = new MemberSearchCondition();
+        MemberSearchCondition condition3 = new MemberSearchCondition();
+        condition3.setAgeGoe(10);
+
+        assertThat(dataVersion.etag(condition1.normalized())).isEqualTo(dataVersion.etag(condition2.normalized()));
+        assertThat(dataVersion.etag(condition1.normalized())).isNotEqualTo(dataVersion.etag(condition3.normalized()));
+    }
+
+    @DisplayName("버전이 같아도 다른 프로세스(재시작)면 다른 ETag")
+    @Test
+    public void etagPerProcess() throws Exception{
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        assertThat(new DataVersion(true, false).current()).isEqualTo(dataVersion.current());
+        assertThat(new DataVersion(true, false).etag(condition.normalized())).isNotEqualTo(dataVersion.etag(condition.normalized()));
+    }
+
+    @DisplayName("replica 로 읽거나 꺼져 있으면 ETag 를 쓰지 않음")
+    @Test
+    public void disabledWithReplica() throws Exception{
+        assertThat(dataVersion.isEnabled()).isTrue();
+        assertThat(new DataVersion(true, true).isEnabled()).isFalse();
+        assertThat(new DataVersion(false, false).isEnabled()).isFalse();
+    }
+
+    @DisplayName("회원, 팀이 변경되면 ETag 가 바뀜")
+    @Test
+    public void changeOnWrite() throws Exception{
+        MemberSearchCondition condition = new MemberSearchCondition();
+        String before = dataVersion.etag(condition);
+
+        dataVersion.onChange(EntityChangeEvent.of(new Team("teamA"), EntityChangeEvent.Type.PERSIST));
+        String afterTeam = dataVersion.etag(condition);
+        dataVersion.onChange(EntityChangeEvent.bulk(Member.class));
+
+        assertThat(afterTeam).isNotEqualTo(before);
+        assertThat(dataVersion.etag(condition)).isNotEqualTo(afterTeam);
+    }
+}
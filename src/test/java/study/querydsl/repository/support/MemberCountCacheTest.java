@@ -0,0 +1,57 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.event.EntityChangeEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountCacheTest {
+
+    MemberCountCache countCache = new MemberCountCache(100, Duration.ofMinutes(1));
+
+    @DisplayName("정규화된 조건이 같으면 count 쿼리는 한번만 실행")
+    @Test
+    public void cacheHit() throws Exception{
+        AtomicInteger calls = new AtomicInteger();
+
+        MemberSearchCondition condition1 = new MemberSearchCondition();
+        condition1.setUsername("");
+        condition1.setAgeGoe(10);
+        MemberSearchCondition condition2 = new MemberSearchCondition();
+        condition2.setAgeGoe(10);
+
+        assertThat(countCache.get(condition1, () -> { calls.incrementAndGet(); return 5L; })).isEqualTo(5);
+        assertThat(countCache.get(condition2, () -> { calls.incrementAndGet(); return 5L; })).isEqualTo(5);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @DisplayName("벌크 이벤트가 오면 무효화")
+    @Test
+    public void invalidateOnBulk() throws Exception{
+        MemberSearchCondition condition = new MemberSearchCondition();
+        countCache.get(condition, () -> 5L);
+
+        countCache.onChange(EntityChangeEvent.bulk(Member.class));
+
+        assertThat(countCache.get(condition, () -> 3L)).isEqualTo(3);
+    }
+
+    @DisplayName("count 조회중에 무효화 되면 결과를 캐시하지 않음")
+    @Test
+    public void skipPutWhenInvalidatedDuringLoad() throws Exception{
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        countCache.get(condition, () -> {
+            countCache.invalidateAll();
+            return 5L;
+        });
+
+        assertThat(countCache.get(condition, () -> 7L)).isEqualTo(7);
+    }
+}
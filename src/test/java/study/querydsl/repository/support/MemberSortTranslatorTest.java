@@ -0,0 +1,45 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberSortTranslatorTest {
+
+    @DisplayName("정렬이 없으면 id 오름차순")
+    @Test
+    public void unsorted() throws Exception{
+        assertThat(MemberSortTranslator.translate(Sort.unsorted())).isEqualTo(MemberSort.ID_ASC);
+        assertThat(MemberSortTranslator.translate(null)).isEqualTo(MemberSort.ID_ASC);
+    }
+
+    @DisplayName("첫번째 키만 사용, ignoreCase 는 무시")
+    @Test
+    public void downgrade() throws Exception{
+        Sort sort = Sort.by(Sort.Order.desc("username").ignoreCase(), Sort.Order.asc("age"));
+
+        assertThat(MemberSortTranslator.translate(sort)).isEqualTo(MemberSort.USERNAME_DESC);
+        assertThat(MemberSortTranslator.translate(Sort.by("memberId"))).isEqualTo(MemberSort.ID_ASC);
+    }
+
+    @DisplayName("id 는 항상 마지막 정렬키")
+    @Test
+    public void tieBreaker() throws Exception{
+        for (MemberSort sort : MemberSort.values()) {
+            String last = sort.orderSpecifiers()[sort.orderSpecifiers().length - 1].getTarget().toString();
+            assertThat(last).isEqualTo("member1.id");
+        }
+    }
+
+    @DisplayName("허용하지 않은 키는 예외")
+    @Test
+    public void reject() throws Exception{
+        assertThatThrownBy(() -> MemberSortTranslator.translate(Sort.by("teamName")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MemberSortTranslator.translate(Sort.by("password")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,147 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.querydsl.monitor.SqlStatementCounter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+// 트랜잭션 매니저는 mock -> 스레드, 취소 동작만 확인
+class ParallelQueryExecutorTest {
+
+    SqlStatementCounter statementCounter = new SqlStatementCounter();
+    ParallelQueryExecutor executor = new ParallelQueryExecutor(mock(PlatformTransactionManager.class), statementCounter, true, Duration.ofMillis(200), 4, 10);
+
+    @DisplayName("두 쿼리를 다른 스레드에서 동시에 실행")
+    @Test
+    public void success() throws Exception{
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Future<String> first = executor.submit(() -> startAndWait(bothStarted));
+        Future<String> second = executor.submit(() -> startAndWait(bothStarted));
+
+        // 하나씩 실행됐다면 서로를 기다리다 false
+        assertThat(executor.await(first)).isEqualTo("true");
+        assertThat(executor.await(second)).isEqualTo("true");
+    }
+
+    @DisplayName("작업 스레드에서 실행된 SQL 은 제출한 스레드의 카운터로 셈")
+    @Test
+    public void statementsCountedOnSubmitter() throws Exception{
+        long before = statementCounter.current();
+
+        Future<Long> first = executor.submit(() -> executeStatements(2));
+        Future<Long> second = executor.submit(() -> executeStatements(3));
+        executor.await(first);
+        executor.await(second);
+
+        assertThat(statementCounter.current() - before).isEqualTo(5);
+    }
+
+    @DisplayName("쿼리 예외는 그대로 전달")
+    @Test
+    public void failure() throws Exception{
+        Future<Long> future = executor.submit(() -> {
+            throw new IllegalArgumentException("bad query");
+        });
+
+        assertThatThrownBy(() -> executor.await(future))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad query");
+    }
+
+    @DisplayName("시간 초과면 실행중인 작업 스레드를 인터럽트")
+    @Test
+    public void timeoutInterruptsWorker() throws Exception{
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<Long> future = executor.submit(() -> sleepUntilInterrupted(interrupted));
+
+        assertThatThrownBy(() -> executor.await(future)).isInstanceOf(QueryTimeoutException.class);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @DisplayName("여러 Future 는 하나의 마감 시각까지만 기다림")
+    @Test
+    public void sharedDeadline() throws Exception{
+        Future<Long> first = executor.submit(() -> sleep(150));
+        Future<Long> second = executor.submit(() -> sleep(300));
+
+        long deadline = executor.deadline();
+        assertThat(executor.await(first, deadline)).isEqualTo(150L);
+        // 각자 timeout 을 기다렸다면 성공 (150 + 200 > 300)
+        assertThatThrownBy(() -> executor.await(second, deadline)).isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @DisplayName("동시 작업 수는 커넥션 풀보다 작게")
+    @Test
+    public void concurrencyLimitBelowPoolSize() throws Exception{
+        assertThat(ParallelQueryExecutor.concurrencyLimit(0, 10)).isEqualTo(5);
+        assertThat(ParallelQueryExecutor.concurrencyLimit(0, 1)).isEqualTo(1);
+        assertThat(ParallelQueryExecutor.concurrencyLimit(4, 10)).isEqualTo(4);
+        assertThatThrownBy(() -> ParallelQueryExecutor.concurrencyLimit(20, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ParallelQueryExecutor.concurrencyLimit(10, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("content 실패시 count 작업 취소 -> 작업 스레드 인터럽트")
+    @Test
+    public void cancelInterruptsWorker() throws Exception{
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<Long> count = executor.submit(() -> sleepUntilInterrupted(interrupted));
+        Future<Long> contents = executor.submit(() -> {
+            throw new IllegalStateException("contents failed");
+        });
+
+        try {
+            assertThatThrownBy(() -> executor.await(contents)).isInstanceOf(IllegalStateException.class);
+        } finally {
+            count.cancel(true);     // MemberRepositoryImpl.searchPageConcurrently 의 finally 와 같음
+        }
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    // p6spy 가 SQL 실행 후 호출하는 것과 같음
+    private Long executeStatements(int n) {
+        for (int i = 0; i < n; i++) {
+            statementCounter.onAfterAnyExecute(null, 0, null);
+        }
+        return (long) n;
+    }
+
+    private static String startAndWait(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            return String.valueOf(bothStarted.await(1, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Long sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return millis;
+        } catch (InterruptedException e) {
+            return -1L;
+        }
+    }
+
+    private static Long sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(10_000);
+            return 0L;
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            return -1L;
+        }
+    }
+}
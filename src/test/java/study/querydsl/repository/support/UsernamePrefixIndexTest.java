@@ -0,0 +1,117 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.EntityChangeEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 테스트 트랜잭션은 롤백되어 커밋 이벤트가 오지 않으므로 커밋된 것처럼 이벤트를 직접 전달
+// 인덱스는 싱글톤 빈이라 롤백되지 않음 -> 테스트 전후로 DB 기준으로 다시 적재
+@SpringBootTest
+@Transactional
+class UsernamePrefixIndexTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    UsernamePrefixIndex index;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    Member kim2;
+
+    @BeforeEach
+    public void before(){
+        index.reset();
+
+        Team teamA = new Team("prefixA");
+        Team teamB = new Team("prefixB");
+        em.persist(teamA);
+        em.persist(teamB);
+        committed(teamA);
+        committed(teamB);
+
+        kim2 = new Member("kim2", 20, teamB);
+        committed(persist(new Member("kim1", 10, teamA)));
+        committed(persist(kim2));
+        committed(persist(new Member("kim3", 30, teamA)));
+        committed(persist(new Member("lee1", 40, teamA)));
+    }
+
+    @AfterEach
+    public void after(){
+        index.reset();
+    }
+
+    @DisplayName("접두사로 시작하는 username 을 사전순으로 limit 개")
+    @Test
+    public void prefix() throws Exception{
+        List<MemberTeamDto> result = index.search("kim", null, 2);
+
+        assertThat(result).extracting("username").containsExactly("kim1", "kim2");
+        assertThat(result.get(0).getTeamName()).isEqualTo("prefixA");
+    }
+
+    @DisplayName("팀 필터")
+    @Test
+    public void teamFilter() throws Exception{
+        assertThat(index.search("kim", "prefixA", 10)).extracting("username").containsExactly("kim1", "kim3");
+    }
+
+    @DisplayName("username 변경, 삭제 반영")
+    @Test
+    public void sync() throws Exception{
+        kim2.setUsername("park2");
+        em.flush();
+        index.onCommitted(EntityChangeEvent.of(kim2, EntityChangeEvent.Type.UPDATE));
+
+        assertThat(index.search("kim", null, 10)).extracting("username").containsExactly("kim1", "kim3");
+        assertThat(index.search("park", null, 10)).extracting("username").containsExactly("park2");
+
+        index.onCommitted(EntityChangeEvent.of(kim2, EntityChangeEvent.Type.REMOVE));
+        assertThat(index.search("park", null, 10)).isEmpty();
+    }
+
+    @DisplayName("재적재 중에 커밋된 변경은 새 인덱스에도 반영")
+    @Test
+    public void commitDuringReload() throws Exception{
+        // 이 테스트 트랜잭션의 데이터는 재적재 쿼리(새 트랜잭션)에 안 보임 -> 적재 후에 커밋된 변경
+        Member late = persist(new Member("kim9", 90));
+        UsernamePrefixIndex reloading = new UsernamePrefixIndex(queryFactory, transactionManager) {
+            @Override
+            void afterLoad() {
+                onCommitted(EntityChangeEvent.of(late, EntityChangeEvent.Type.PERSIST));
+            }
+        };
+
+        assertThat(reloading.search("kim9", null, 10)).extracting("username").containsExactly("kim9");
+    }
+
+    private Member persist(Member member) {
+        em.persist(member);
+        return member;
+    }
+
+    private void committed(Object entity) {
+        index.onCommitted(EntityChangeEvent.of(entity, EntityChangeEvent.Type.PERSIST));
+    }
+}
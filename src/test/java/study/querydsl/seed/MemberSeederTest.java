@@ -0,0 +1,71 @@
+package study.querydsl.seed;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.event.EntityChangeEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+// chunk 마다 커밋하므로 테스트 트랜잭션 없이 실행하고 적재한 행만 정리
+@SpringBootTest(properties = "app.seed.chunk-size=40")
+@RecordApplicationEvents
+class MemberSeederTest {
+
+    @Autowired
+    MemberSeeder memberSeeder;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    ApplicationEvents events;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+    long maxMemberId;
+    long maxTeamId;
+
+    @BeforeEach
+    public void before(){
+        tx = new TransactionTemplate(transactionManager);
+        maxMemberId = tx.execute(status -> maxId(queryFactory.select(member.id.max()).from(member).fetchOne()));
+        maxTeamId = tx.execute(status -> maxId(queryFactory.select(team.id.max()).from(team).fetchOne()));
+    }
+
+    @AfterEach
+    public void after(){
+        tx.executeWithoutResult(status -> {
+            queryFactory.delete(member).where(member.id.gt(maxMemberId)).execute();
+            queryFactory.delete(team).where(team.id.gt(maxTeamId)).execute();
+        });
+    }
+
+    @DisplayName("행마다 이벤트를 내지 않고 chunk 마다 벌크 이벤트 한번")
+    @Test
+    public void bulkEventPerChunk() throws Exception{
+        assertThat(memberSeeder.seed(2, 100)).isEqualTo(100);
+
+        assertThat(events.stream(EntityChangeEvent.class).filter(e -> !e.isBulk())).isEmpty();
+        // 팀 chunk 1번 + 회원 chunk 3번 (40, 40, 20)
+        assertThat(events.stream(EntityChangeEvent.class).filter(EntityChangeEvent::isBulk)).hasSize(4);
+        Long seeded = tx.execute(status -> queryFactory.select(member.count()).from(member).where(member.id.gt(maxMemberId)).fetchOne());
+        assertThat(seeded).isEqualTo(100);
+    }
+
+    private static long maxId(Long id) {
+        return id == null ? 0 : id;
+    }
+}
@@ -0,0 +1,119 @@
+package study.querydsl.service;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+// chunk 마다 커밋되므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 정리
+@SpringBootTest(properties = {"app.bulk.chunk-size=10", "app.bulk.throttle=0ms"})
+class BulkOperationServiceTest {
+
+    private static final String PREFIX = "bulkMember";
+
+    @Autowired
+    BulkOperationService bulkOperationService;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    public void before(){
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team bulkTeam = new Team("bulkTeam");
+            em.persist(bulkTeam);
+            for (int i = 0; i < 25; i++) {
+                em.persist(new Member(PREFIX + i, i, bulkTeam));
+            }
+        });
+    }
+
+    @AfterEach
+    public void after(){
+        tx.executeWithoutResult(status -> {
+            queryFactory.delete(member).where(member.username.startsWith(PREFIX)).execute();
+            queryFactory.delete(team).where(team.name.eq("bulkTeam")).execute();
+        });
+    }
+
+    @DisplayName("chunk 단위로 나눠서 update")
+    @Test
+    public void chunkedUpdate() throws Exception{
+        BulkOperationService.BulkResult result = bulkOperationService.update(member, member.id,
+                member.username.startsWith(PREFIX),
+                update -> update.set(member.age, member.age.add(100)));
+
+        assertThat(result.getAffected()).isEqualTo(25);
+        assertThat(result.getChunks()).isEqualTo(3);
+
+        Long notUpdated = tx.execute(status -> queryFactory
+                .select(member.count())
+                .from(member)
+                .where(member.username.startsWith(PREFIX), member.age.lt(100))
+                .fetchOne());
+        assertThat(notUpdated).isZero();
+    }
+
+    @DisplayName("조인 조건으로 고른 대상을 chunk 단위로 delete")
+    @Test
+    public void chunkedDeleteByTeam() throws Exception{
+        BulkOperationService.BulkResult result = bulkOperationService.delete(member, member.id,
+                member.team.name.eq("bulkTeam").and(member.age.lt(15)));
+
+        assertThat(result.getAffected()).isEqualTo(15);
+        assertThat(result.getChunks()).isEqualTo(2);
+    }
+
+    @DisplayName("대상을 고른 뒤 조건에 맞지 않게 바뀐 행은 update 하지 않음")
+    @Test
+    public void skipRowChangedAfterSelect() throws Exception{
+        BulkOperationService.BulkResult result = bulkOperationService.update(member, member.id,
+                member.username.startsWith(PREFIX).and(member.age.lt(10)),
+                update -> {
+                    // 대상 id 를 고른 뒤 문장 실행 전에 다른 쓰기가 끼어든 것과 같음
+                    queryFactory.update(member)
+                            .set(member.age, 50)
+                            .where(member.username.eq(PREFIX + 0))
+                            .execute();
+                    update.set(member.username, member.username.concat("-updated"));
+                });
+
+        assertThat(result.getAffected()).isEqualTo(9);
+        String username = tx.execute(status -> queryFactory
+                .select(member.username)
+                .from(member)
+                .where(member.username.startsWith(PREFIX + 0), member.age.eq(50))
+                .fetchOne());
+        assertThat(username).isEqualTo(PREFIX + 0);
+    }
+
+    @DisplayName("트랜잭션 안에서는 실행하지 않음")
+    @Test
+    public void rejectInsideTransaction() throws Exception{
+        assertThatThrownBy(() -> tx.executeWithoutResult(status -> bulkOperationService.delete(member, member.id,
+                member.username.startsWith(PREFIX))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// export 는 테스트 트랜잭션에 참여 -> flush 한 데이터가 보이고 em.clear() 도 같은 영속성 컨텍스트에 적용됨
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @DisplayName("NDJSON -> 한 줄에 회원 하나")
+    @Test
+    public void ndjson() throws Exception{
+        persistMembers("exportTeam", 3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberExportService.export(byTeam("exportTeam"), MemberExportService.Format.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(count).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            assertThat(node.isObject()).isTrue();
+            assertThat(node.get("teamName").asText()).isEqualTo("exportTeam");
+        }
+    }
+
+    @DisplayName("JSON -> 배열 하나")
+    @Test
+    public void jsonArray() throws Exception{
+        persistMembers("exportTeam", 3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberExportService.export(byTeam("exportTeam"), MemberExportService.Format.JSON, out);
+
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+        assertThat(count).isEqualTo(3);
+        assertThat(array.isArray()).isTrue();
+        assertThat(array).hasSize(3);
+        assertThat(array.get(0).get("username").asText()).startsWith("exportTeam");
+    }
+
+    @DisplayName("1000 건마다 영속성 컨텍스트 정리")
+    @Test
+    public void clearEveryThousandRows() throws Exception{
+        Team marker = persistMembers("exportSmall", 999);
+        memberExportService.export(byTeam("exportSmall"), MemberExportService.Format.NDJSON, new ByteArrayOutputStream());
+        assertThat(em.contains(marker)).isTrue();      // 1000 건이 안되면 정리하지 않음
+
+        marker = persistMembers("exportLarge", 1000);
+        long count = memberExportService.export(byTeam("exportLarge"), MemberExportService.Format.NDJSON, new ByteArrayOutputStream());
+        assertThat(count).isEqualTo(1000);
+        assertThat(em.contains(marker)).isFalse();     // 1000 번째 행에서 clear
+    }
+
+    // 팀을 반환 -> 영속성 컨텍스트에 남아있는지로 clear 여부 확인
+    private Team persistMembers(String teamName, int n) {
+        Team team = new Team(teamName);
+        em.persist(team);
+        for (int i = 0; i < n; i++) {
+            em.persist(new Member(teamName + i, i % 100, team));
+        }
+        em.flush();
+        return team;
+    }
+
+    private static MemberSearchCondition byTeam(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+}
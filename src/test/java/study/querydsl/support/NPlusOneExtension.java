@@ -0,0 +1,31 @@
+package study.querydsl.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import study.querydsl.monitor.NPlusOneDetector;
+
+/**
+ * 테스트 메서드 단위로 N+1 감지
+ * @ExtendWith(NPlusOneExtension.class) 를 붙이면 테스트 중 N+1 이 있으면 실패
+ * */
+public class NPlusOneExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(NPlusOneExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        NPlusOneDetector detector = SpringExtension.getApplicationContext(context).getBean(NPlusOneDetector.class);
+        context.getStore(NAMESPACE).put("scope", detector.open(context.getDisplayName()));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        NPlusOneDetector.Scope scope = context.getStore(NAMESPACE).remove("scope", NPlusOneDetector.Scope.class);
+        if (scope != null) {
+            scope.close();
+            scope.report().assertNoNPlusOne();
+        }
+    }
+}